@@ -0,0 +1,58 @@
+package myhyuny.game.minesweeper.bot;
+
+import java.util.SplittableRandom;
+
+import myhyuny.game.minesweeper.Cell;
+import myhyuny.game.minesweeper.Minesweeper;
+
+/**
+ * Selects a covered square at random, as a baseline.
+ *
+ * @author Hyunmin Kang
+ */
+public final class RandomStrategy implements Strategy {
+
+    private SplittableRandom random = new SplittableRandom();
+
+    @Override
+    public void begin(Minesweeper game) {
+        random = new SplittableRandom(game.getSeed());
+    }
+
+    @Override
+    public boolean play(Minesweeper game) {
+        int index = covered(game, random);
+        if (index < 0) {
+            return false;
+        }
+        game.select(index / game.getWidth(), index % game.getWidth());
+        return true;
+    }
+
+    /**
+     * @return a covered square not flagged, probed at random a few times and then scanned for, or -1 when none is left
+     */
+    static int covered(Minesweeper game, SplittableRandom random) {
+        int width = game.getWidth(), area = width * game.getHeight();
+        for (int i = 0; i < 16; i++) {
+            int index = random.nextInt(area);
+            if (isCovered(game, index, width)) {
+                return index;
+            }
+        }
+        int start = random.nextInt(area);
+        for (int i = 0; i < area; i++) {
+            int index = (start + i) % area;
+            if (isCovered(game, index, width)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    static boolean isCovered(Minesweeper game, int index, int width) {
+        byte state = game.getState(index / width, index % width);
+        return !Cell.isOpened(state) && Cell.getFlag(state) != Cell.FLAG_UP;
+    }
+
+}
@@ -0,0 +1,63 @@
+package myhyuny.game.minesweeper.bot;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import myhyuny.game.minesweeper.Minesweeper;
+import myhyuny.game.minesweeper.Probability;
+import myhyuny.game.minesweeper.Solver;
+
+/**
+ * Plays every move the {@link Solver} deduces and guesses only when it is stuck: the covered square least likely to be
+ * a mine by {@link Probability} when {@code exact}, a random one otherwise.
+ *
+ * @author Hyunmin Kang
+ */
+public final class SolverStrategy implements Strategy {
+
+    private final boolean exact;
+
+    private Solver solver;
+    private Probability probability;
+    private SplittableRandom random = new SplittableRandom();
+
+    public SolverStrategy(boolean exact) {
+        this.exact = exact;
+    }
+
+    @Override
+    public void begin(Minesweeper game) {
+        solver = new Solver(game);
+        if (exact) {
+            ForkJoinPool pool = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+            probability = new Probability(game, pool);
+        }
+        random = new SplittableRandom(game.getSeed());
+    }
+
+    @Override
+    public boolean play(Minesweeper game) {
+        if (solver.step()) {
+            return true;
+        }
+        int index = exact ? safest(game) : RandomStrategy.covered(game, random);
+        if (index < 0) {
+            return false;
+        }
+        game.select(index / game.getWidth(), index % game.getWidth());
+        return true;
+    }
+
+    private int safest(Minesweeper game) {
+        double[] probabilities = probability.compute();
+        int width = game.getWidth(), best = -1;
+        for (int i = 0; i < probabilities.length; i++) {
+            if (RandomStrategy.isCovered(game, i, width) && (best < 0 || probabilities[i] < probabilities[best])) {
+                best = i;
+            }
+        }
+        return best < 0 || Double.isNaN(probabilities[best]) ? RandomStrategy.covered(game, random) : best;
+    }
+
+}
@@ -0,0 +1,77 @@
+package myhyuny.game.minesweeper.bot;
+
+/**
+ * Running totals of games played, merged from the tasks that played them. Means and variances are kept by Welford's
+ * method and merged by Chan's, so nothing is kept per game.
+ *
+ * @author Hyunmin Kang
+ */
+public final class Statistics {
+
+    private long games = 0;
+    private long wins = 0;
+    private double clicks = 0d;
+    private double clicksM2 = 0d;
+    private long nanos = 0;
+
+    void add(boolean win, int clicks, long nanos) {
+        games++;
+        if (win) {
+            wins++;
+        }
+        double delta = clicks - this.clicks;
+        this.clicks += delta / games;
+        clicksM2 += delta * (clicks - this.clicks);
+        this.nanos += nanos;
+    }
+
+    Statistics merge(Statistics other) {
+        if (other.games == 0) {
+            return this;
+        }
+        long total = games + other.games;
+        double delta = other.clicks - clicks;
+        clicks += delta * other.games / total;
+        clicksM2 += other.clicksM2 + delta * delta * games * other.games / total;
+        games = total;
+        wins += other.wins;
+        nanos += other.nanos;
+        return this;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public double getWinRate() {
+        return games == 0 ? 0d : (double) wins / games;
+    }
+
+    /**
+     * @return half width of the 95% confidence interval of the win rate
+     */
+    public double getWinRateError() {
+        double rate = getWinRate();
+        return games == 0 ? 0d : 1.96d * Math.sqrt(rate * (1d - rate) / games);
+    }
+
+    public double getMeanClicks() {
+        return clicks;
+    }
+
+    public double getClicksDeviation() {
+        return games < 2 ? 0d : Math.sqrt(clicksM2 / (games - 1));
+    }
+
+    /**
+     * @return mean time a game took on the thread playing it
+     */
+    public double getMeanNanos() {
+        return games == 0 ? 0d : (double) nanos / games;
+    }
+
+}
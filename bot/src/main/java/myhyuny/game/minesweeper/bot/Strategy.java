@@ -0,0 +1,27 @@
+package myhyuny.game.minesweeper.bot;
+
+import myhyuny.game.minesweeper.Minesweeper;
+
+/**
+ * Player of headless games. A strategy instance plays one game at a time, on one thread, and is reused for the next
+ * game of the same engine.
+ *
+ * @author Hyunmin Kang
+ */
+public interface Strategy {
+
+    /**
+     * Called once a game started from its first square, before any move.
+     */
+    default void begin(Minesweeper game) {
+    }
+
+    /**
+     * Plays on, through {@link Minesweeper#select}, {@link Minesweeper#changeFlag} and {@link Minesweeper#exploreMine}:
+     * usually a single move, or the few moves of one deduction.
+     *
+     * @return false when there is no move left to play, which gives the game up
+     */
+    boolean play(Minesweeper game);
+
+}
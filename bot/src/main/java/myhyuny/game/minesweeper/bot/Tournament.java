@@ -0,0 +1,135 @@
+package myhyuny.game.minesweeper.bot;
+
+import static java.lang.System.nanoTime;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+import myhyuny.game.minesweeper.Minesweeper;
+
+/**
+ * Plays many headless games of one size per strategy across a fork-join pool. Games are split in halves down to
+ * batches of {@link #BATCH}, each played one after another on a single engine and strategy of its own. Game {@code i}
+ * of every strategy is laid out from the same seed and started from the center square, so strategies are compared on
+ * the same boards.
+ * <p>
+ * Arguments: games, width, height, mines, then the strategies to compare among {@code random}, {@code solver} and
+ * {@code probability}, all of them by default.
+ *
+ * @author Hyunmin Kang
+ */
+public final class Tournament {
+
+    static final int BATCH = 256;
+
+    private static final long GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final int width;
+    private final int height;
+    private final int mines;
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    public Tournament(int width, int height, int mines, long seed, ForkJoinPool pool) {
+        this.width = width;
+        this.height = height;
+        this.mines = mines;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    public Statistics play(Supplier<Strategy> strategies, long games) {
+        return pool.invoke(new Batch(strategies, 0, games));
+    }
+
+    private final class Batch extends RecursiveTask<Statistics> {
+        private final Supplier<Strategy> strategies;
+        private final long from;
+        private final long to;
+
+        Batch(Supplier<Strategy> strategies, long from, long to) {
+            this.strategies = strategies;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Statistics compute() {
+            if (to - from > BATCH) {
+                long middle = (from + to) >>> 1;
+                Batch left = new Batch(strategies, from, middle);
+                left.fork();
+                Statistics right = new Batch(strategies, middle, to).compute();
+                return left.join().merge(right);
+            }
+
+            Statistics statistics = new Statistics();
+            Minesweeper game = new Minesweeper(width, height, mines);
+            Strategy strategy = strategies.get();
+            // Moves past this many give the game up, in case a strategy never ends one.
+            int limit = 4 * game.getWidth() * game.getHeight();
+            for (long i = from; i < to; i++) {
+                long begin = nanoTime();
+                game.restart();
+                game.start(game.getHeight() / 2, game.getWidth() / 2, seed + i * GAMMA);
+                strategy.begin(game);
+                while (!game.isOver() && game.getClicks() < limit && strategy.play(game)) {
+                }
+                statistics.add(game.isClear(), game.getClicks(), nanoTime() - begin);
+            }
+            return statistics;
+        }
+    }
+
+    private static Supplier<Strategy> strategy(String name) {
+        switch (name) {
+            case "random":
+                return RandomStrategy::new;
+            case "solver":
+                return () -> new SolverStrategy(false);
+            case "probability":
+                return () -> new SolverStrategy(true);
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int height = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int mines = args.length > 3 ? Integer.parseInt(args[3]) : 99;
+
+        Map<String, Supplier<Strategy>> strategies = new LinkedHashMap<>();
+        for (int i = 4; i < args.length; i++) {
+            strategies.put(args[i], strategy(args[i]));
+        }
+        if (strategies.isEmpty()) {
+            for (String name : new String[]{"random", "solver", "probability"}) {
+                strategies.put(name, strategy(name));
+            }
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        Tournament tournament = new Tournament(width, height, mines, 0L, pool);
+        System.out.printf("%d games of %dx%d with %d mines per strategy on %d threads%n",
+            games, width, height, mines, pool.getParallelism());
+        System.out.printf("%-12s %10s %18s %16s %12s %12s%n",
+            "strategy", "games", "win rate", "clicks", "us/game", "games/s");
+
+        for (Map.Entry<String, Supplier<Strategy>> entry : strategies.entrySet()) {
+            long begin = nanoTime();
+            Statistics statistics = tournament.play(entry.getValue(), games);
+            double seconds = (nanoTime() - begin) / 1e9d;
+            System.out.printf("%-12s %10d %9.3f%% +-%.3f%% %8.1f +-%6.1f %12.1f %12.0f%n",
+                entry.getKey(), statistics.getGames(),
+                statistics.getWinRate() * 100d, statistics.getWinRateError() * 100d,
+                statistics.getMeanClicks(), statistics.getClicksDeviation(),
+                statistics.getMeanNanos() / 1e3d, statistics.getGames() / seconds);
+        }
+    }
+
+}
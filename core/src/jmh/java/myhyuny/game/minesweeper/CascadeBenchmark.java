@@ -0,0 +1,41 @@
+package myhyuny.game.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * First click on boards whose first square is empty, so that every invocation generates a board and runs a cascade.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class CascadeBenchmark {
+
+    @Param({"BEGINNER", "INTERMEDIATE", "EXPERT", "HUGE"})
+    private Preset preset;
+
+    @Param({"0.15", "0.21"})
+    private double density;
+
+    private Minesweeper game;
+    private long[] seeds;
+    private int next;
+
+    @Setup
+    public void setup() {
+        game = preset.game(density, 0L);
+        seeds = preset.cascadeSeeds(density, 64);
+        next = 0;
+    }
+
+    @Benchmark
+    public Minesweeper firstClick() {
+        game.restart();
+        game.start(preset.height / 2, preset.width / 2, seeds[next++ & 63]);
+        return game;
+    }
+
+}
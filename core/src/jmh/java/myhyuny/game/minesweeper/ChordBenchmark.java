@@ -0,0 +1,66 @@
+package myhyuny.game.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Chording over a board whose mines are all flagged, sweeping every opened number until a sweep opens nothing new.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class ChordBenchmark {
+
+    private static final LocationConsumer NONE = (y, x) -> {};
+
+    @Param({"BEGINNER", "INTERMEDIATE", "EXPERT"})
+    private Preset preset;
+
+    @Param({"0.15", "0.21"})
+    private double density;
+
+    private Minesweeper game;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        game = preset.game(density, 0L);
+        seed = 0L;
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        game.restart();
+        game.start(preset.height / 2, preset.width / 2, seed++);
+        for (int y = 0; y < preset.height; y++) {
+            for (int x = 0; x < preset.width; x++) {
+                if (Cell.isMine(game.getState(y, x))) {
+                    game.changeFlag(y, x);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Minesweeper chord() {
+        for (int opened = -1, last = -2; opened != last && !game.isOver(); ) {
+            last = opened;
+            opened = 0;
+            for (int y = 0; y < preset.height; y++) {
+                for (int x = 0; x < preset.width; x++) {
+                    byte state = game.getState(y, x);
+                    if (Cell.isOpened(state) && Cell.isNearby(state)) {
+                        game.exploreMine(y, x, NONE);
+                        opened++;
+                    }
+                }
+            }
+        }
+        return game;
+    }
+
+}
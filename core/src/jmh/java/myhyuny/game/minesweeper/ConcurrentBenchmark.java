@@ -0,0 +1,108 @@
+package myhyuny.game.minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A whole game cleared by several players at once, each sweeping its own band of rows and every band meeting its
+ * neighbors' cascades. Doubles as a stress test: every game must be cleared exactly once, with every safe square
+ * opened by exactly one player.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class ConcurrentBenchmark {
+
+    @Param({"EXPERT", "HUGE"})
+    private Preset preset;
+
+    @Param({"0.15"})
+    private double density;
+
+    @Param({"1", "2", "4", "8"})
+    private int players;
+
+    private ExecutorService executor;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newFixedThreadPool(players);
+        seed = 0L;
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int clear() throws InterruptedException, ExecutionException {
+        ConcurrentMinesweeper game = new ConcurrentMinesweeper(preset.width, preset.height, preset.mines(density));
+        AtomicInteger overs = new AtomicInteger();
+        game.setOverListener(clear -> overs.incrementAndGet());
+        game.start(preset.height / 2, preset.width / 2, seed++);
+        int first = preset.width * preset.height - game.getMines() - remaining(game);
+
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int p = 0; p < players; p++) {
+            int from = preset.height * p / players, to = preset.height * (p + 1) / players;
+            futures.add(executor.submit(() -> sweep(game, from, to)));
+        }
+        int opened = first;
+        for (Future<Integer> future : futures) {
+            opened += future.get();
+        }
+
+        if (!game.isClear() || overs.get() != 1 || opened != preset.width * preset.height - game.getMines()
+            || remaining(game) != 0)
+        {
+            throw new IllegalStateException("Game " + (seed - 1) + " ended " + overs.get() + " times, clear "
+                + game.isClear() + ", " + opened + " squares opened");
+        }
+        return opened;
+    }
+
+    private static int sweep(ConcurrentMinesweeper game, int from, int to) {
+        int opened = 0;
+        for (int y = from; y < to; y++) {
+            for (int x = 0; x < game.getWidth(); x++) {
+                Cell cell = game.getCell(y, x);
+                if (cell.isMine()) {
+                    if (cell.getFlag() != Cell.FLAG_UP) {
+                        game.changeFlag(y, x);
+                    }
+                } else {
+                    opened += game.select(y, x);
+                }
+            }
+        }
+        return opened;
+    }
+
+    private static int remaining(ConcurrentMinesweeper game) {
+        int remaining = 0;
+        for (int y = 0; y < game.getHeight(); y++) {
+            for (int x = 0; x < game.getWidth(); x++) {
+                Cell cell = game.getCell(y, x);
+                if (!cell.isMine() && !cell.isOpened()) {
+                    remaining++;
+                }
+            }
+        }
+        return remaining;
+    }
+
+}
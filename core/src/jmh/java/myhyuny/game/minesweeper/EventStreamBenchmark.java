@@ -0,0 +1,74 @@
+package myhyuny.game.minesweeper;
+
+import java.util.concurrent.Flow;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * First click followed by every move the solver can deduce on an expert board streamed to a number of subscribers,
+ * none of them asking for more than a single update, as the thread playing the game sees it.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class EventStreamBenchmark {
+
+    @Param({"-1", "0", "1", "64", "1024"})
+    private int subscribers;
+
+    private Minesweeper game;
+    private Solver solver;
+    private EventStream events;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        game = new Minesweeper(Preset.EXPERT.width, Preset.EXPERT.height, Preset.EXPERT.mines(0.21), 0L);
+        solver = new Solver(game);
+        if (0 <= subscribers) {
+            events = new EventStream();
+            game.setEvents(events);
+            for (int i = 0; i < subscribers; i++) {
+                events.subscribe(new Flow.Subscriber<Update>() {
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        subscription.request(1);
+                    }
+
+                    @Override
+                    public void onNext(Update item) {
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                    }
+
+                    @Override
+                    public void onComplete() {
+                    }
+                });
+            }
+        }
+        seed = 0L;
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (events != null) {
+            events.close();
+        }
+    }
+
+    @Benchmark
+    public int solve() {
+        game.restart();
+        game.start(Preset.EXPERT.height / 2, Preset.EXPERT.width / 2, seed++);
+        return solver.solve();
+    }
+
+}
@@ -0,0 +1,120 @@
+package myhyuny.game.minesweeper;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Scanline fill of {@link Minesweeper} against the former fill that allocated a coordinate per square and rescanned
+ * after every push. Setup fails unless both open exactly the same squares on every seed.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class FloodFillBenchmark {
+
+    @Param({"EXPERT", "HUGE"})
+    private Preset preset;
+
+    @Param({"0.05", "0.15"})
+    private double density;
+
+    private Minesweeper game;
+    private Board board;
+    private long[] seeds;
+    private int rows;
+    private int cols;
+    private int next;
+
+    @Setup
+    public void setup() {
+        game = preset.game(density, 0L);
+        board = preset.board();
+        seeds = preset.cascadeSeeds(density, 16);
+        rows = preset.height / 2;
+        cols = preset.width / 2;
+        next = 0;
+
+        for (long seed : seeds) {
+            scanline(seed);
+            legacy(seed);
+            for (int y = 0; y < preset.height; y++) {
+                for (int x = 0; x < preset.width; x++) {
+                    if (Cell.isOpened(game.getState(y, x)) != Cell.isOpened(board.get(y * preset.width + x))) {
+                        throw new IllegalStateException("Different squares opened at " + y + ", " + x);
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Minesweeper scanline() {
+        return scanline(seeds[next++ & 15]);
+    }
+
+    @Benchmark
+    public Board legacy() {
+        return legacy(seeds[next++ & 15]);
+    }
+
+    private Minesweeper scanline(long seed) {
+        game.restart();
+        game.start(rows, cols, seed);
+        return game;
+    }
+
+    private Board legacy(long seed) {
+        int width = preset.width, height = preset.height;
+        board.buried(rows * width + cols, game.getMines(), seed);
+        board.set(rows * width + cols, Cell.setOpened(board.get(rows * width + cols)));
+
+        class Coord {
+            final int y, x;
+
+            Coord(int y, int x) {
+                this.y = y;
+                this.x = x;
+            }
+        }
+
+        Deque<Coord> stack = new ArrayDeque<>();
+        stack.push(new Coord(rows, cols));
+
+        next:
+        while (stack.size() > 0) {
+            Coord coord = stack.pop();
+
+            for (int y = coord.y - 1; y < coord.y + 2; y++) {
+                if (y < 0 || height <= y) {
+                    continue;
+                }
+
+                for (int x = coord.x - 1; x < coord.x + 2; x++) {
+                    if (x < 0 || width <= x) {
+                        continue;
+                    }
+
+                    byte state = board.get(y * width + x);
+                    if (Cell.isOpened(state)) {
+                        continue;
+                    }
+
+                    board.set(y * width + x, Cell.setOpened(state));
+                    if (Cell.isEmpty(state)) {
+                        stack.add(coord);
+                        stack.add(new Coord(y, x));
+                        continue next;
+                    }
+                }
+            }
+        }
+        return board;
+    }
+
+}
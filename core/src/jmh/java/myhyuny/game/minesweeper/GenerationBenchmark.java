@@ -0,0 +1,50 @@
+package myhyuny.game.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Mine placement alone, without opening any square, from scratch and from a layout made ahead of time.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class GenerationBenchmark {
+
+    @Param({"BEGINNER", "INTERMEDIATE", "EXPERT", "HUGE"})
+    private Preset preset;
+
+    @Param({"0.15", "0.21"})
+    private double density;
+
+    private Board board;
+    private int exclude;
+    private int mines;
+    private long seed;
+    private byte[] layout;
+
+    @Setup
+    public void setup() {
+        board = preset.board();
+        exclude = preset.height / 2 * preset.width + preset.width / 2;
+        mines = preset.mines(density);
+        seed = 0L;
+        layout = board.layout(mines, seed);
+    }
+
+    @Benchmark
+    public Board buried() {
+        board.buried(exclude, mines, seed++);
+        return board;
+    }
+
+    @Benchmark
+    public Board anchor() {
+        board.buried(exclude, mines, 0L, layout == null ? null : layout.clone());
+        return board;
+    }
+
+}
@@ -0,0 +1,54 @@
+package myhyuny.game.minesweeper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Search of a board cleared by deduction alone, on one thread and on several.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class NoGuessBenchmark {
+
+    @Param({"BEGINNER", "INTERMEDIATE", "EXPERT"})
+    private Preset preset;
+
+    @Param({"0.15", "0.21"})
+    private double density;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private ExecutorService executor;
+    private NoGuess noGuess;
+    private Minesweeper game;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newFixedThreadPool(parallelism);
+        noGuess = new NoGuess(executor, parallelism).setTimeout(1L, TimeUnit.MINUTES);
+        game = preset.game(density, 0L);
+        seed = 0L;
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public long search() {
+        return noGuess.search(game, preset.height / 2, preset.width / 2, seed++);
+    }
+
+}
@@ -0,0 +1,58 @@
+package myhyuny.game.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Whole game from the first click to clear, played by a single sweep that knows where the mines are: flags mines,
+ * chords opened numbers and selects the rest.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class PlayoutBenchmark {
+
+    private static final LocationConsumer NONE = (y, x) -> {};
+
+    @Param({"BEGINNER", "INTERMEDIATE", "EXPERT", "HUGE"})
+    private Preset preset;
+
+    @Param({"0.15", "0.21"})
+    private double density;
+
+    private Minesweeper game;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        game = preset.game(density, 0L);
+        seed = 0L;
+    }
+
+    @Benchmark
+    public Minesweeper playout() {
+        game.restart();
+        game.start(preset.height / 2, preset.width / 2, seed++);
+        for (int y = 0; y < preset.height; y++) {
+            for (int x = 0; x < preset.width; x++) {
+                byte state = game.getState(y, x);
+                if (Cell.isMine(state)) {
+                    if (Cell.getFlag(state) != Cell.FLAG_UP) {
+                        game.changeFlag(y, x);
+                    }
+                } else if (Cell.isOpened(state)) {
+                    if (Cell.isNearby(state)) {
+                        game.exploreMine(y, x, NONE);
+                    }
+                } else {
+                    game.select(y, x);
+                }
+            }
+        }
+        return game;
+    }
+
+}
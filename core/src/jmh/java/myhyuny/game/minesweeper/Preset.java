@@ -0,0 +1,53 @@
+package myhyuny.game.minesweeper;
+
+/**
+ * Board sizes the benchmarks run at. {@code HUGE} is beyond {@link Minesweeper#MAX_WIDTH} and uses the chunked board.
+ *
+ * @author Hyunmin Kang
+ */
+public enum Preset {
+
+    BEGINNER(9, 9),
+    INTERMEDIATE(16, 16),
+    EXPERT(30, 16),
+    HUGE(1000, 1000);
+
+    final int width;
+    final int height;
+
+    Preset(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    int mines(double density) {
+        return (int) (width * height * density);
+    }
+
+    Board board() {
+        return this == HUGE ? new ChunkedBoard(width, height) : new ArrayBoard(width, height);
+    }
+
+    Minesweeper game(double density, long seed) {
+        return this == HUGE
+            ? Minesweeper.huge(width, height, mines(density), seed)
+            : new Minesweeper(width, height, mines(density), seed);
+    }
+
+    /**
+     * First seeds, from 0 up, whose board opens an empty square at the center.
+     */
+    long[] cascadeSeeds(double density, int count) {
+        long[] seeds = new long[count];
+        Minesweeper game = game(density, 0L);
+        for (int i = 0, seed = 0; i < count; seed++) {
+            game.restart();
+            game.start(height / 2, width / 2, seed);
+            if (Cell.isEmpty(game.getState(height / 2, width / 2))) {
+                seeds[i++] = seed;
+            }
+        }
+        return seeds;
+    }
+
+}
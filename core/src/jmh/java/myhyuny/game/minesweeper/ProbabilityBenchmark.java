@@ -0,0 +1,52 @@
+package myhyuny.game.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Probabilities of a board where the solver got stuck, without and with the components of the previous call.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class ProbabilityBenchmark {
+
+    @Param({"INTERMEDIATE", "EXPERT"})
+    private Preset preset;
+
+    @Param({"0.15", "0.21"})
+    private double density;
+
+    private Minesweeper game;
+    private Probability cached;
+
+    @Setup
+    public void setup() {
+        game = preset.game(density, 0L);
+        Solver solver = new Solver(game);
+        for (long seed = 0L; ; seed++) {
+            game.restart();
+            game.start(preset.height / 2, preset.width / 2, seed);
+            solver.solve();
+            if (!game.isOver() && 0 < solver.getMoves()) {
+                break;
+            }
+        }
+        cached = new Probability(game);
+        cached.compute();
+    }
+
+    @Benchmark
+    public double[] compute() {
+        return new Probability(game).compute();
+    }
+
+    @Benchmark
+    public double[] computeCached() {
+        return cached.compute();
+    }
+
+}
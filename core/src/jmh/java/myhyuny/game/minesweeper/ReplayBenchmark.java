@@ -0,0 +1,63 @@
+package myhyuny.game.minesweeper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Playback of a log of games played by the solver, per game.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class ReplayBenchmark {
+
+    private static final int GAMES = 1000;
+
+    @Param({"BEGINNER", "INTERMEDIATE", "EXPERT"})
+    private Preset preset;
+
+    @Param({"0.15", "0.21"})
+    private double density;
+
+    private Path path;
+
+    @Setup
+    public void setup() throws IOException {
+        path = Files.createTempFile("replay", ".log");
+        try (Recorder recorder = new Recorder(path)) {
+            Minesweeper game = recorder.record(preset.game(density, 0L));
+            Solver solver = new Solver(game);
+            for (int i = 0; i < GAMES; i++) {
+                game.restart();
+                game.start(preset.height / 2, preset.width / 2, i);
+                solver.solve();
+            }
+            game.restart();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public long replay() throws IOException {
+        Replay replay = new Replay(path);
+        while (replay.hasNext()) {
+            replay.next();
+        }
+        return replay.getActions();
+    }
+
+}
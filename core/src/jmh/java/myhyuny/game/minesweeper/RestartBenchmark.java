@@ -0,0 +1,39 @@
+package myhyuny.game.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Quick restart: a game given up after its first click, restarted and started again.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class RestartBenchmark {
+
+    @Param({"BEGINNER", "INTERMEDIATE", "EXPERT", "HUGE"})
+    private Preset preset;
+
+    @Param({"0.15", "0.21"})
+    private double density;
+
+    private Minesweeper game;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        game = preset.game(density, 0L);
+        seed = 0L;
+    }
+
+    @Benchmark
+    public Minesweeper restart() {
+        game.start(preset.height / 2, preset.width / 2, seed++);
+        game.restart();
+        return game;
+    }
+
+}
@@ -0,0 +1,72 @@
+package myhyuny.game.minesweeper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Leaderboard queries and inserts against a store holding {@code history} scores spread over the presets.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class ScoreStoreBenchmark {
+
+    @Param({"1000", "100000"})
+    private int history;
+
+    private Path path;
+    private ScoreStore store;
+    private final Random random = new Random(0L);
+
+    @Setup
+    public void setup() throws IOException {
+        path = Files.createTempFile("scores", ".log");
+        Files.delete(path);
+        try (ScoreStore store = new ScoreStore(path)) {
+            for (int i = 0; i < history; i++) {
+                store.add(score());
+            }
+        }
+        store = new ScoreStore(path);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(path);
+    }
+
+    private Score score() {
+        Preset preset = Preset.values()[random.nextInt(Preset.values().length)];
+        return new Score(preset.name(), preset.width, preset.height, preset.mines(0.15d),
+            10_000L + random.nextInt(1_000_000), 100 + random.nextInt(100), random.nextLong(), random.nextLong());
+    }
+
+    @Benchmark
+    public List<Score> top() {
+        return store.top("EXPERT", 10);
+    }
+
+    @Benchmark
+    public void add() {
+        store.add(score());
+    }
+
+    @Benchmark
+    public ScoreStore load() throws IOException {
+        try (ScoreStore store = new ScoreStore(path)) {
+            return store;
+        }
+    }
+
+}
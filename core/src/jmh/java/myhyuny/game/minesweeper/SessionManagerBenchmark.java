@@ -0,0 +1,56 @@
+package myhyuny.game.minesweeper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * An action on a session kept in memory against one read back from disk, spilled again right after.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class SessionManagerBenchmark {
+
+    @Param({"BEGINNER", "INTERMEDIATE", "EXPERT", "HUGE"})
+    private Preset preset;
+
+    @Param({"0.15", "0.21"})
+    private double density;
+
+    private SessionManager<Integer> manager;
+
+    @Setup
+    public void setup() throws IOException {
+        manager = new SessionManager<>(Files.createTempDirectory("sessions"), Long.MAX_VALUE, (key, game) -> {});
+        Minesweeper game = preset.game(density, 0L);
+        long[] seeds = preset.cascadeSeeds(density, 1);
+        game.start(preset.height / 2, preset.width / 2, seeds[0]);
+        new Solver(game).solve();
+        manager.put(0, game);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        manager.close();
+    }
+
+    @Benchmark
+    public int resident() throws IOException {
+        return manager.apply(0, Minesweeper::getFlag);
+    }
+
+    @Benchmark
+    public int reload() throws IOException {
+        manager.evictIdle(0, TimeUnit.NANOSECONDS);
+        return manager.apply(0, Minesweeper::getFlag);
+    }
+
+}
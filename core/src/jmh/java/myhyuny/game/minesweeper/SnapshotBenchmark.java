@@ -0,0 +1,48 @@
+package myhyuny.game.minesweeper;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Save and restore of a game left where the solver got stuck.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class SnapshotBenchmark {
+
+    @Param({"BEGINNER", "INTERMEDIATE", "EXPERT", "HUGE"})
+    private Preset preset;
+
+    @Param({"0.15", "0.21"})
+    private double density;
+
+    private Minesweeper game;
+    private byte[] snapshot;
+
+    @Setup
+    public void setup() {
+        game = preset.game(density, 0L);
+        Solver solver = new Solver(game);
+        long[] seeds = preset.cascadeSeeds(density, 1);
+        game.start(preset.height / 2, preset.width / 2, seeds[0]);
+        solver.solve();
+        snapshot = Snapshot.save(game);
+    }
+
+    @Benchmark
+    public byte[] save() {
+        return Snapshot.save(game);
+    }
+
+    @Benchmark
+    public Minesweeper restore() throws IOException {
+        return Snapshot.restore(snapshot);
+    }
+
+}
@@ -0,0 +1,41 @@
+package myhyuny.game.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * First click followed by every move the solver can deduce.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+    @Param({"BEGINNER", "INTERMEDIATE", "EXPERT", "HUGE"})
+    private Preset preset;
+
+    @Param({"0.15", "0.21"})
+    private double density;
+
+    private Minesweeper game;
+    private Solver solver;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        game = preset.game(density, 0L);
+        solver = new Solver(game);
+        seed = 0L;
+    }
+
+    @Benchmark
+    public int solve() {
+        game.restart();
+        game.start(preset.height / 2, preset.width / 2, seed++);
+        return solver.solve();
+    }
+
+}
@@ -0,0 +1,41 @@
+package myhyuny.game.minesweeper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * First click followed by every move the solver can deduce, on an expert sized board of every topology.
+ *
+ * @author Hyunmin Kang
+ */
+@State(Scope.Thread)
+public class TopologyBenchmark {
+
+    @Param({"RECTANGULAR", "TOROIDAL", "HEXAGONAL", "KNIGHT"})
+    private Topology topology;
+
+    @Param({"0.15", "0.21"})
+    private double density;
+
+    private Minesweeper game;
+    private Solver solver;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        game = new Minesweeper(Preset.EXPERT.width, Preset.EXPERT.height, Preset.EXPERT.mines(density), 0L, topology);
+        solver = new Solver(game);
+        seed = 0L;
+    }
+
+    @Benchmark
+    public int solve() {
+        game.restart();
+        game.start(Preset.EXPERT.height / 2, Preset.EXPERT.width / 2, seed++);
+        return solver.solve();
+    }
+
+}
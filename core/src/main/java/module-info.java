@@ -0,0 +1,11 @@
+/**
+ * Headless Minesweeper engine.
+ *
+ * @author Hyunmin Kang
+ */
+module myhyuny.game.minesweeper {
+    requires java.management;
+    requires jdk.jfr;
+
+    exports myhyuny.game.minesweeper;
+}
@@ -0,0 +1,303 @@
+package myhyuny.game.minesweeper;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Squares in a single array, with the squares around each taken from the table of its {@link Topology}, or worked out
+ * square by square on a board too large for one. The squares opened or flagged during a game are also kept as a list
+ * of indexes, with a bitset so that each is listed once, so that going over them or covering them again costs only as
+ * much as the game touched. Every square also keeps the flags and the covered squares without a flag among itself and
+ * the squares around it, in the low and high nibble of a byte, started over by the first {@link #set(int, byte)} after
+ * {@link #buried(int, int, long, byte[])}, so that a board whose squares are changed elsewhere never allocates them.
+ *
+ * @author Hyunmin Kang
+ */
+final class ArrayBoard implements Board {
+
+    private final int width;
+    private final int height;
+    private final Topology topology;
+    private final Neighbors neighbors;
+    private final int[] squares = new int[Topology.MAX_NEIGHBORS];
+    private final SeededRandom generator = new SeededRandom();
+
+    private byte[] cells;
+    private long[] listed;
+    private int[] touched = new int[64];
+    private int touchedCount = 0;
+    private byte[] around;
+    private byte[] initial;
+    private boolean counted = false;
+
+    ArrayBoard(int width, int height) {
+        this(width, height, Topology.RECTANGULAR);
+    }
+
+    ArrayBoard(int width, int height, Topology topology) {
+        this.width = width;
+        this.height = height;
+        this.topology = topology;
+        this.neighbors = topology.table(width, height);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Topology getTopology() {
+        return topology;
+    }
+
+    @Override
+    public int neighbors(int index, int[] into) {
+        if (neighbors != null) {
+            return neighbors.copy(index, into);
+        }
+        return topology.neighbors(index / width, index % width, width, height, into);
+    }
+
+    @Override
+    public byte get(int index) {
+        return cells[index];
+    }
+
+    @Override
+    public void set(int index, byte state) {
+        if (Cell.isTouched(state) && (listed[index >>> 6] & 1L << index) == 0) {
+            listed[index >>> 6] |= 1L << index;
+            if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, touchedCount << 1);
+            }
+            touched[touchedCount++] = index;
+        }
+
+        byte previous = cells[index];
+        int delta = (Cell.isFlagUp(state) ? 1 : 0) - (Cell.isFlagUp(previous) ? 1 : 0)
+            + ((isUnflagged(state) ? 1 : 0) - (isUnflagged(previous) ? 1 : 0) << 4);
+        if (delta != 0) {
+            if (!counted) {
+                count();
+            }
+            around[index] += delta;
+            if (neighbors != null) {
+                for (int n = neighbors.from(index), end = neighbors.to(index); n < end; n++) {
+                    around[neighbors.get(n)] += delta;
+                }
+            } else {
+                for (int n = 0, count = neighbors(index, squares); n < count; n++) {
+                    around[squares[n]] += delta;
+                }
+            }
+        }
+        cells[index] = state;
+    }
+
+    @Override
+    public void buried(int exclude, int mines, long seed) {
+        buried(exclude, mines, seed, null);
+    }
+
+    /**
+     * The mine under the first square selected, if any, is moved to a free square picked from the seed, so that a
+     * layout made ahead of time only costs its neighborhood once the square is known.
+     */
+    @Override
+    public void buried(int exclude, int mines, long seed, byte[] layout) {
+        if (layout != null) {
+            cells = layout;
+        } else if (cells != null) {
+            Arrays.fill(cells, (byte) 0);
+            layout(cells, width, height, topology, neighbors, mines, seed, generator, squares);
+        } else {
+            cells = layout(mines, seed);
+        }
+        unlist();
+        counted = false;
+        exclude(cells, width, height, topology, neighbors, exclude, seed, generator, squares);
+    }
+
+    /**
+     * A generator and scratch squares of its own keep it off the ones of the thread playing.
+     */
+    @Override
+    public byte[] layout(int mines, long seed) {
+        return layout(new byte[height * width], width, height, topology, neighbors, mines, seed, new SeededRandom(),
+            new int[Topology.MAX_NEIGHBORS]);
+    }
+
+    /**
+     * Squares of a rectangular board buried as {@link #buried(int, int, long)} buries them, without making a board.
+     */
+    static byte[] buried(int width, int height, int exclude, int mines, long seed) {
+        Neighbors neighbors = Topology.RECTANGULAR.table(width, height);
+        SeededRandom generator = new SeededRandom();
+        int[] squares = new int[Topology.MAX_NEIGHBORS];
+        byte[] cells = layout(new byte[height * width], width, height, Topology.RECTANGULAR, neighbors, mines, seed,
+            generator, squares);
+        exclude(cells, width, height, Topology.RECTANGULAR, neighbors, exclude, seed, generator, squares);
+        return cells;
+    }
+
+    /**
+     * Floyd's sampling over every square, using the layout itself as the set of chosen squares. Same seed always
+     * gives the same layout.
+     *
+     * @param neighbors table of the squares around, or {@code null} to work them out into {@code squares}
+     */
+    private static byte[] layout(byte[] cells, int width, int height, Topology topology, Neighbors neighbors,
+        int mines, long seed, SeededRandom generator, int[] squares)
+    {
+        int area = cells.length;
+        generator.setSeed(seed);
+
+        for (int i = area - mines; i < area; i++) {
+            int location = generator.nextInt(i + 1);
+            if (Cell.isMine(cells[location])) {
+                location = i;
+            }
+            cells[location] = Cell.setMine(cells[location]);
+            nearby(cells, width, height, topology, neighbors, location, true, squares);
+        }
+        return cells;
+    }
+
+    private static void exclude(byte[] cells, int width, int height, Topology topology, Neighbors neighbors,
+        int exclude, long seed, SeededRandom generator, int[] squares)
+    {
+        if (!Cell.isMine(cells[exclude])) {
+            return;
+        }
+
+        generator.setSeed(~seed);
+        int location;
+        do {
+            location = generator.nextInt(cells.length);
+        } while (location == exclude || Cell.isMine(cells[location]));
+
+        cells[exclude] = (byte) (cells[exclude] & ~Cell.MINE);
+        cells[location] = Cell.setMine(cells[location]);
+        nearby(cells, width, height, topology, neighbors, exclude, false, squares);
+        nearby(cells, width, height, topology, neighbors, location, true, squares);
+    }
+
+    /**
+     * Counts a mine, or stops counting it, on its own square and the squares around it.
+     */
+    private static void nearby(byte[] cells, int width, int height, Topology topology, Neighbors neighbors,
+        int location, boolean increment, int[] squares)
+    {
+        cells[location] = increment ? Cell.incrementNearby(cells[location]) : Cell.decrementNearby(cells[location]);
+        if (neighbors != null) {
+            for (int n = neighbors.from(location), end = neighbors.to(location); n < end; n++) {
+                int i = neighbors.get(n);
+                cells[i] = increment ? Cell.incrementNearby(cells[i]) : Cell.decrementNearby(cells[i]);
+            }
+        } else {
+            int count = topology.neighbors(location / width, location % width, width, height, squares);
+            for (int n = 0; n < count; n++) {
+                int i = squares[n];
+                cells[i] = increment ? Cell.incrementNearby(cells[i]) : Cell.decrementNearby(cells[i]);
+            }
+        }
+    }
+
+    /**
+     * Starts the counters over with every square covered without a flag.
+     */
+    private void count() {
+        if (around == null || around.length != cells.length) {
+            initial = new byte[cells.length];
+            for (int i = 0; i < initial.length; i++) {
+                initial[i] = (byte) (1 + neighbors(i, squares) << 4);
+            }
+            around = new byte[cells.length];
+        }
+        System.arraycopy(initial, 0, around, 0, around.length);
+        counted = true;
+    }
+
+    @Override
+    public void forEachMine(IntConsumer consumer) {
+        for (int i = 0; i < cells.length; i++) {
+            if (Cell.isMine(cells[i])) {
+                consumer.accept(i);
+            }
+        }
+    }
+
+    @Override
+    public void forEachTouched(IntConsumer consumer) {
+        for (int i = 0; i < touchedCount; i++) {
+            int index = touched[i];
+            if (Cell.isTouched(cells[index])) {
+                consumer.accept(index);
+            }
+        }
+    }
+
+    @Override
+    public void reset(IntConsumer consumer) {
+        for (int i = 0; i < touchedCount; i++) {
+            int index = touched[i];
+            if (Cell.isTouched(cells[index])) {
+                consumer.accept(index);
+                cells[index] = Cell.cover(cells[index]);
+            }
+        }
+        unlist();
+    }
+
+    @Override
+    public int getFlagsAround(int index) {
+        if (!counted) {
+            count();
+        }
+        return around[index] & 0x0f;
+    }
+
+    @Override
+    public int getUnflaggedAround(int index) {
+        if (!counted) {
+            count();
+        }
+        return (around[index] & 0xf0) >>> 4;
+    }
+
+    private static boolean isUnflagged(byte state) {
+        return !Cell.isOpened(state) && !Cell.isFlagUp(state);
+    }
+
+    private void unlist() {
+        if (listed == null || listed.length != (cells.length + 63) >>> 6) {
+            listed = new long[(cells.length + 63) >>> 6];
+        } else {
+            for (int i = 0; i < touchedCount; i++) {
+                listed[touched[i] >>> 6] = 0;
+            }
+        }
+        touchedCount = 0;
+    }
+
+    @Override
+    public Board blank() {
+        return new ArrayBoard(width, height, topology);
+    }
+
+    @Override
+    public long getBytes() {
+        if (cells == null) {
+            return 0;
+        }
+        return 64L + cells.length + (around == null ? 0 : around.length * 2L) + listed.length * 8L
+            + touched.length * 4L;
+    }
+
+}
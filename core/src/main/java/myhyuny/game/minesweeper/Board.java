@@ -0,0 +1,80 @@
+package myhyuny.game.minesweeper;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Storage of packed squares (see {@link Cell}) addressed by {@code rows * width + cols}.
+ *
+ * @author Hyunmin Kang
+ */
+interface Board {
+
+    int getWidth();
+
+    int getHeight();
+
+    Topology getTopology();
+
+    /**
+     * Writes the indexes of the squares around a square, itself excluded, in increasing order.
+     *
+     * @param into at least {@link Topology#MAX_NEIGHBORS} long
+     * @return how many were written
+     */
+    int neighbors(int index, int[] into);
+
+    byte get(int index);
+
+    void set(int index, byte state);
+
+    void buried(int exclude, int mines, long seed);
+
+    /**
+     * Same as {@link #buried(int, int, long)}, starting from a layout made ahead of time by {@link #layout(int, long)}
+     * with the same mines and seed. The board takes over the array.
+     */
+    void buried(int exclude, int mines, long seed, byte[] layout);
+
+    /**
+     * Squares with every mine of a seed placed, before the first square selected is known. Safe to call from another
+     * thread than the one playing.
+     *
+     * @return the layout, or {@code null} when the board lays its mines out lazily and has nothing to make ahead
+     */
+    byte[] layout(int mines, long seed);
+
+    void forEachMine(IntConsumer consumer);
+
+    /**
+     * Every square opened or flagged, without laying out or materializing anything that was not touched yet.
+     */
+    void forEachTouched(IntConsumer consumer);
+
+    /**
+     * Covers every square opened or flagged again, without its flag, handing each to {@code consumer} before it is
+     * covered. Only the squares touched are visited; the mines stay where they are until the next
+     * {@link #buried(int, int, long)}, which reuses the storage of the board where it can.
+     */
+    void reset(IntConsumer consumer);
+
+    /**
+     * @return flags up on a square and the squares around it
+     */
+    int getFlagsAround(int index);
+
+    /**
+     * @return squares neither opened nor flagged up among a square and the squares around it
+     */
+    int getUnflaggedAround(int index);
+
+    /**
+     * @return new board of the same kind and size, with nothing buried yet
+     */
+    Board blank();
+
+    /**
+     * @return bytes held by the squares, roughly
+     */
+    long getBytes();
+
+}
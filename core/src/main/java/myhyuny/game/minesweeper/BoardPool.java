@@ -0,0 +1,188 @@
+package myhyuny.game.minesweeper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mine layouts made ahead of time on a background thread, by width, height and mines, so that starting a game only
+ * moves the mine off the first square selected instead of placing every mine. Each size keeps up to
+ * {@code capacity} layouts and is refilled after every game it starts; the least recently used size is dropped when
+ * more than {@code maxSizes} are kept.
+ *
+ * @author Hyunmin Kang
+ */
+public final class BoardPool {
+
+    private final int capacity;
+    private final int maxSizes;
+    private final Executor executor;
+    private final Random random = new Random();
+
+    private final Map<Size, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    static final class Layout {
+        final long seed;
+        final byte[] cells;
+
+        Layout(long seed, byte[] cells) {
+            this.seed = seed;
+            this.cells = cells;
+        }
+    }
+
+    private static final class Size {
+        final int width;
+        final int height;
+        final int mines;
+        final Topology topology;
+
+        Size(Minesweeper game) {
+            this.width = game.getWidth();
+            this.height = game.getHeight();
+            this.mines = game.getMines();
+            this.topology = game.getTopology();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Size)) {
+                return false;
+            }
+            Size size = (Size) o;
+            return width == size.width && height == size.height && mines == size.mines
+                && topology == size.topology;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(width, height, mines, topology);
+        }
+    }
+
+    private final class Entry implements Runnable {
+        final Minesweeper prototype;
+        final BlockingQueue<Layout> layouts = new ArrayBlockingQueue<>(capacity);
+        final AtomicBoolean filling = new AtomicBoolean();
+        volatile boolean evicted = false;
+
+        Entry(Minesweeper game) {
+            this.prototype = game.blank();
+        }
+
+        void fill() {
+            if (!evicted && layouts.remainingCapacity() > 0 && filling.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!evicted && layouts.remainingCapacity() > 0) {
+                    long seed;
+                    synchronized (random) {
+                        seed = random.nextLong();
+                    }
+                    byte[] cells = prototype.layout(seed);
+                    if (cells == null || !layouts.offer(new Layout(seed, cells))) {
+                        break;
+                    }
+                }
+            } finally {
+                filling.set(false);
+            }
+        }
+    }
+
+    public BoardPool() {
+        this(8, 4);
+    }
+
+    public BoardPool(int capacity, int maxSizes) {
+        this(capacity, maxSizes, Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "board-pool");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }));
+    }
+
+    public BoardPool(int capacity, int maxSizes, Executor executor) {
+        this.capacity = Math.max(capacity, 1);
+        this.maxSizes = Math.max(maxSizes, 1);
+        this.executor = executor;
+        this.entries = new LinkedHashMap<Size, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Size, Entry> eldest) {
+                if (size() > BoardPool.this.maxSizes) {
+                    eldest.getValue().evicted = true;
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Starts filling the layouts of the game's size, before its first game starts.
+     */
+    public void warm(Minesweeper game) {
+        entry(game).fill();
+    }
+
+    /**
+     * @return a layout of the game's size, or {@code null} when none is ready yet
+     */
+    Layout take(Minesweeper game) {
+        Entry entry = entry(game);
+        Layout layout = entry.layouts.poll();
+        if (layout != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        entry.fill();
+        return layout;
+    }
+
+    private Entry entry(Minesweeper game) {
+        synchronized (entries) {
+            return entries.computeIfAbsent(new Size(game), size -> new Entry(game));
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return layouts ready, over every size
+     */
+    public int getSize() {
+        synchronized (entries) {
+            return entries.values().stream().mapToInt(entry -> entry.layouts.size()).sum();
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package myhyuny.game.minesweeper;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Empty squares opened together with everything around them.
+ *
+ * @author Hyunmin Kang
+ */
+@Name("myhyuny.minesweeper.Cascade")
+@Label("Cascade")
+final class CascadeEvent extends GameEvent {
+
+    @Label("Opened")
+    int opened;
+
+}
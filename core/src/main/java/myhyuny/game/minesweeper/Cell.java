@@ -0,0 +1,132 @@
+package myhyuny.game.minesweeper;
+
+/**
+ * Read-only view of a single square packed into one byte.
+ * <pre>
+ * bit 0-3 : nearby (a mine counts itself, so 0~9)
+ * bit 4   : mine
+ * bit 5   : opened
+ * bit 6-7 : flag (FLAG_NONE, FLAG_UP, FLAG_QUESTION)
+ * </pre>
+ *
+ * @author Hyunmin Kang
+ */
+public class Cell {
+
+    public static final byte FLAG_NONE = 0;
+    public static final byte FLAG_UP = 1;
+    public static final byte FLAG_QUESTION = 2;
+
+    static final int NEARBY = 0x0f;
+    static final int MINE = 0x10;
+    static final int OPENED = 0x20;
+    static final int FLAG_SHIFT = 6;
+    static final int FLAG = 0x3 << FLAG_SHIFT;
+
+    private byte state;
+
+    Cell() {
+    }
+
+    Cell(byte state) {
+        this.state = state;
+    }
+
+    Cell wrap(byte state) {
+        this.state = state;
+        return this;
+    }
+
+    public byte getNearby() {
+        return getNearby(state);
+    }
+
+    public boolean isNearby() {
+        return isNearby(state);
+    }
+
+    public boolean isEmpty() {
+        return isEmpty(state);
+    }
+
+    public boolean isMine() {
+        return isMine(state);
+    }
+
+    public byte getFlag() {
+        return getFlag(state);
+    }
+
+    public boolean isOpened() {
+        return isOpened(state);
+    }
+
+    static byte getNearby(byte state) {
+        return (byte) (state & NEARBY);
+    }
+
+    static boolean isNearby(byte state) {
+        int nearby = state & NEARBY;
+        return 0 < nearby && nearby < 9;
+    }
+
+    static boolean isEmpty(byte state) {
+        return (state & NEARBY) < 1;
+    }
+
+    static byte incrementNearby(byte state) {
+        return (byte) (state + 1);
+    }
+
+    static byte decrementNearby(byte state) {
+        return (byte) (state - 1);
+    }
+
+    static boolean isMine(byte state) {
+        return (state & MINE) != 0;
+    }
+
+    static byte setMine(byte state) {
+        return (byte) (state | MINE);
+    }
+
+    public static byte getFlag(byte state) {
+        return (byte) ((state & FLAG) >>> FLAG_SHIFT);
+    }
+
+    static byte setFlag(byte state, int flag) {
+        return (byte) (state & ~FLAG | flag << FLAG_SHIFT);
+    }
+
+    static byte changeFlag(byte state) {
+        int flag = (getFlag(state) + 1) % 3;
+        return (byte) (state & ~FLAG | flag << FLAG_SHIFT);
+    }
+
+    public static boolean isOpened(byte state) {
+        return (state & OPENED) != 0;
+    }
+
+    static byte setOpened(byte state) {
+        return (byte) (state | OPENED);
+    }
+
+    static boolean isFlagUp(byte state) {
+        return (state & FLAG) == FLAG_UP << FLAG_SHIFT;
+    }
+
+    /**
+     * @return whether the square was opened or flagged
+     */
+    static boolean isTouched(byte state) {
+        return (state & (OPENED | FLAG)) != 0;
+    }
+
+    /**
+     * @return the square covered again, without its flag
+     */
+    static byte cover(byte state) {
+        return (byte) (state & ~(OPENED | FLAG));
+    }
+
+}
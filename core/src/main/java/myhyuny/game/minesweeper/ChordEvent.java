@@ -0,0 +1,18 @@
+package myhyuny.game.minesweeper;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Neighbors of a number opened at once, see {@link Minesweeper#exploreMine(int, int, LocationConsumer)}.
+ *
+ * @author Hyunmin Kang
+ */
+@Name("myhyuny.minesweeper.Chord")
+@Label("Chord")
+final class ChordEvent extends GameEvent {
+
+    @Label("Opened")
+    int opened;
+
+}
@@ -0,0 +1,375 @@
+package myhyuny.game.minesweeper;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Board split into {@code CHUNK_SIZE} square chunks for huge boards. The number of mines of every chunk is fixed when
+ * the game starts, but a chunk's mines are only laid out (from a seed derived per chunk) once it or a neighboring chunk
+ * is touched, and its squares are only materialized when touched. A chunk whose squares without a mine are all opened
+ * is compacted back to its mine bits and flags.
+ *
+ * @author Hyunmin Kang
+ */
+final class ChunkedBoard implements Board {
+
+    static final int CHUNK_SHIFT = 6;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int width;
+    private final int height;
+    private final int chunksX;
+    private final int chunksY;
+    private final SeededRandom generator = new SeededRandom();
+
+    private Chunk[] chunks;
+    private int[] counts;
+    private int exclude;
+    private long seed;
+
+    private static final class Chunk {
+        final int x;
+        final int y;
+        final int width;
+        final int height;
+        final long[] mines;
+        byte[] cells;
+        long[] flags;
+        int closes;
+
+        Chunk(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.mines = new long[height];
+        }
+
+        boolean isMine(int x, int y) {
+            return (mines[y] >>> x & 1L) != 0;
+        }
+    }
+
+    ChunkedBoard(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.chunksX = (width + CHUNK_MASK) >> CHUNK_SHIFT;
+        this.chunksY = (height + CHUNK_MASK) >> CHUNK_SHIFT;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public byte get(int index) {
+        int y = index / width, x = index - y * width;
+        Chunk chunk = materialize(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+        if (chunk.cells != null) {
+            return chunk.cells[(y & CHUNK_MASK) << CHUNK_SHIFT | x & CHUNK_MASK];
+        }
+        return compacted(chunk, x & CHUNK_MASK, y & CHUNK_MASK);
+    }
+
+    @Override
+    public void set(int index, byte state) {
+        int y = index / width, x = index - y * width;
+        Chunk chunk = materialize(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT);
+        if (chunk.cells == null) {
+            expand(chunk);
+        }
+
+        int local = (y & CHUNK_MASK) << CHUNK_SHIFT | x & CHUNK_MASK;
+        byte previous = chunk.cells[local];
+        chunk.cells[local] = state;
+        if (Cell.isMine(state) || Cell.isOpened(previous) == Cell.isOpened(state)) {
+            return;
+        }
+        if (!Cell.isOpened(state)) {
+            // Covered again by an undo.
+            chunk.closes++;
+        } else if (--chunk.closes == 0) {
+            compact(chunk);
+        }
+    }
+
+    /**
+     * Only the mine count of every chunk is decided here, in proportion to its area and with the remainder spread over
+     * random chunks. The squares themselves are laid out lazily.
+     */
+    @Override
+    public void buried(int exclude, int mines, long seed) {
+        this.exclude = exclude;
+        this.seed = seed;
+        if (chunks == null) {
+            chunks = new Chunk[chunksX * chunksY];
+            counts = new int[chunks.length];
+        } else {
+            Arrays.fill(chunks, null);
+        }
+
+        long area = (long) width * height;
+        int rest = mines;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = (int) min(mines * (long) area(i) / area, capacity(i));
+            rest -= counts[i];
+        }
+
+        generator.setSeed(seed);
+        while (rest > 0) {
+            int i = generator.nextInt(counts.length);
+            if (counts[i] < capacity(i)) {
+                counts[i]++;
+                rest--;
+            }
+        }
+    }
+
+    @Override
+    public void buried(int exclude, int mines, long seed, byte[] layout) {
+        buried(exclude, mines, seed);
+    }
+
+    @Override
+    public byte[] layout(int mines, long seed) {
+        return null;
+    }
+
+    @Override
+    public void forEachMine(IntConsumer consumer) {
+        for (Chunk chunk : chunks) {
+            if (chunk == null) {
+                continue;
+            }
+            for (int y = 0; y < chunk.height; y++) {
+                int offset = (chunk.y + y) * width + chunk.x;
+                for (long bits = chunk.mines[y]; bits != 0; bits &= bits - 1) {
+                    consumer.accept(offset + Long.numberOfTrailingZeros(bits));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void forEachTouched(IntConsumer consumer) {
+        if (chunks == null) {
+            return;
+        }
+        for (Chunk chunk : chunks) {
+            if (chunk == null || chunk.cells == null && chunk.flags == null) {
+                continue;
+            }
+            for (int y = 0; y < chunk.height; y++) {
+                for (int x = 0; x < chunk.width; x++) {
+                    byte state = chunk.cells != null ? chunk.cells[y << CHUNK_SHIFT | x] : compacted(chunk, x, y);
+                    if (Cell.isOpened(state) || Cell.getFlag(state) != Cell.FLAG_NONE) {
+                        consumer.accept((chunk.y + y) * width + chunk.x + x);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Chunks are dropped, to be laid out again from the same seed when looked at.
+     */
+    @Override
+    public void reset(IntConsumer consumer) {
+        if (chunks == null) {
+            return;
+        }
+        forEachTouched(consumer);
+        Arrays.fill(chunks, null);
+    }
+
+    @Override
+    public int getFlagsAround(int index) {
+        int flags = 0, r = index / width, c = index - r * width;
+        for (int y = max(r - 1, 0); y < min(r + 2, height); y++) {
+            for (int x = max(c - 1, 0); x < min(c + 2, width); x++) {
+                if (Cell.isFlagUp(get(y * width + x))) {
+                    flags++;
+                }
+            }
+        }
+        return flags;
+    }
+
+    @Override
+    public int getUnflaggedAround(int index) {
+        int covered = 0, r = index / width, c = index - r * width;
+        for (int y = max(r - 1, 0); y < min(r + 2, height); y++) {
+            for (int x = max(c - 1, 0); x < min(c + 2, width); x++) {
+                byte state = get(y * width + x);
+                if (!Cell.isOpened(state) && !Cell.isFlagUp(state)) {
+                    covered++;
+                }
+            }
+        }
+        return covered;
+    }
+
+    private int area(int i) {
+        int cx = i % chunksX, cy = i / chunksX;
+        return min(CHUNK_SIZE, width - (cx << CHUNK_SHIFT)) * min(CHUNK_SIZE, height - (cy << CHUNK_SHIFT));
+    }
+
+    private int capacity(int i) {
+        int cx = exclude % width >> CHUNK_SHIFT, cy = exclude / width >> CHUNK_SHIFT;
+        return cy * chunksX + cx == i ? area(i) - 1 : area(i);
+    }
+
+    private Chunk chunk(int cx, int cy) {
+        int i = cy * chunksX + cx;
+        Chunk chunk = chunks[i];
+        if (chunk == null) {
+            chunks[i] = chunk = bury(i, cx, cy);
+        }
+        return chunk;
+    }
+
+    /**
+     * Floyd's sampling inside a single chunk, seeded from the game seed and the chunk index so that a chunk comes out
+     * the same no matter in which order chunks are touched.
+     */
+    private Chunk bury(int i, int cx, int cy) {
+        int x = cx << CHUNK_SHIFT, y = cy << CHUNK_SHIFT;
+        Chunk chunk = new Chunk(x, y, min(CHUNK_SIZE, width - x), min(CHUNK_SIZE, height - y));
+
+        int area = chunk.width * chunk.height;
+        int ex = exclude % width - x, ey = exclude / width - y;
+        int skip = 0 <= ex && ex < chunk.width && 0 <= ey && ey < chunk.height ? ey * chunk.width + ex : area;
+        int max = skip < area ? area - 1 : area;
+
+        generator.setSeed(SeededRandom.mix(seed, i));
+        for (int j = max - counts[i]; j < max; j++) {
+            int location = generator.nextInt(j + 1);
+            location = location < skip ? location : location + 1;
+            if (chunk.isMine(location % chunk.width, location / chunk.width)) {
+                location = j < skip ? j : j + 1;
+            }
+            chunk.mines[location / chunk.width] |= 1L << location % chunk.width;
+        }
+        return chunk;
+    }
+
+    private Chunk materialize(int cx, int cy) {
+        Chunk chunk = chunk(cx, cy);
+        if (chunk.cells != null || chunk.flags != null) {
+            return chunk;
+        }
+
+        chunk.cells = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        chunk.closes = chunk.width * chunk.height - counts[cy * chunksX + cx];
+        for (int y = 0; y < chunk.height; y++) {
+            for (int x = 0; x < chunk.width; x++) {
+                byte state = (byte) nearby(chunk.x + x, chunk.y + y);
+                chunk.cells[y << CHUNK_SHIFT | x] = chunk.isMine(x, y) ? Cell.setMine(state) : state;
+            }
+        }
+        return chunk;
+    }
+
+    private int nearby(int cols, int rows) {
+        int nearby = 0;
+        for (int y = rows - 1; y < rows + 2; y++) {
+            for (int x = cols - 1; x < cols + 2; x++) {
+                if (0 <= y && y < height && 0 <= x && x < width
+                    && chunk(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT).isMine(x & CHUNK_MASK, y & CHUNK_MASK))
+                {
+                    nearby++;
+                }
+            }
+        }
+        return nearby;
+    }
+
+    private byte compacted(Chunk chunk, int x, int y) {
+        byte state = (byte) nearby(chunk.x + x, chunk.y + y);
+        if (!chunk.isMine(x, y)) {
+            return Cell.setOpened(state);
+        }
+        int local = y << CHUNK_SHIFT | x;
+        int flag = (int) (chunk.flags[local >>> 5] >>> ((local & 31) << 1)) & 0x3;
+        return (byte) (Cell.setMine(state) | flag << Cell.FLAG_SHIFT);
+    }
+
+    private void compact(Chunk chunk) {
+        long[] flags = new long[CHUNK_SIZE * CHUNK_SIZE >>> 5];
+        for (int y = 0; y < chunk.height; y++) {
+            for (int x = 0; x < chunk.width; x++) {
+                int local = y << CHUNK_SHIFT | x;
+                byte state = chunk.cells[local];
+                if (Cell.isMine(state) && Cell.isOpened(state)) {
+                    return;
+                }
+                flags[local >>> 5] |= (long) Cell.getFlag(state) << ((local & 31) << 1);
+            }
+        }
+        chunk.flags = flags;
+        chunk.cells = null;
+    }
+
+    private void expand(Chunk chunk) {
+        chunk.cells = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        for (int y = 0; y < chunk.height; y++) {
+            for (int x = 0; x < chunk.width; x++) {
+                chunk.cells[y << CHUNK_SHIFT | x] = compacted(chunk, x, y);
+            }
+        }
+        chunk.flags = null;
+    }
+
+    /**
+     * Always {@link Topology#RECTANGULAR}: a table of the squares around every square would take more than the board.
+     */
+    @Override
+    public Topology getTopology() {
+        return Topology.RECTANGULAR;
+    }
+
+    @Override
+    public int neighbors(int index, int[] into) {
+        return Topology.RECTANGULAR.neighbors(index / width, index % width, width, height, into);
+    }
+
+    @Override
+    public Board blank() {
+        return new ChunkedBoard(width, height);
+    }
+
+    /**
+     * Counts only the chunks materialized so far, expanded or compacted.
+     */
+    @Override
+    public long getBytes() {
+        if (chunks == null) {
+            return 0;
+        }
+        long bytes = 32L + chunks.length * 8L;
+        for (Chunk chunk : chunks) {
+            if (chunk == null) {
+                continue;
+            }
+            bytes += 64L + chunk.mines.length * 8L;
+            if (chunk.cells != null) {
+                bytes += 16L + chunk.cells.length;
+            }
+            if (chunk.flags != null) {
+                bytes += 16L + chunk.flags.length * 8L;
+            }
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,327 @@
+package myhyuny.game.minesweeper;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Game that several players can play at once from their own threads, for cooperative multiplayer.
+ * <p>
+ * Every square is a packed state byte (see {@link Cell}) changed only by compare-and-set, so opening a square or
+ * changing its flag never takes a lock and cascades in separate areas never wait on each other. A cascade claims each
+ * square it opens; whoever claims an empty square also looks at its neighbors, so concurrent cascades that meet still
+ * open everything once. The game ends through a single compare-and-set on its status, so it is cleared or lost exactly
+ * once. The board is laid out as {@link Minesweeper} would from the same seed and first square.
+ * <p>
+ * Listeners are called on the thread of the player whose action caused the change.
+ *
+ * @author Hyunmin Kang
+ */
+public final class ConcurrentMinesweeper {
+
+    private static final VarHandle SQUARES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private static final int NEW = 0;
+    private static final int STARTING = 1;
+    private static final int PLAYING = 2;
+    private static final int CLEARED = 3;
+    private static final int LOST = 4;
+
+    private final int width;
+    private final int height;
+    private final int mines;
+
+    private final AtomicInteger status = new AtomicInteger(NEW);
+    private final AtomicInteger safe = new AtomicInteger();
+    private final AtomicInteger flag;
+    private volatile byte[] cells;
+    private long seed;
+
+    private final ThreadLocal<int[][]> stacks = ThreadLocal.withInitial(() -> new int[][]{new int[64]});
+
+    private LocObjConsumer<Cell> openedListener = null;
+
+    private LocObjConsumer<Byte> flagListener = null;
+
+    private Consumer<Boolean> overListener = (c) -> {};
+
+    public ConcurrentMinesweeper(int width, int height, int mines) {
+        this.width = min(max(width, Minesweeper.MIN_WIDTH), Minesweeper.MAX_HUGE_WIDTH);
+        this.height = min(max(height, Minesweeper.MIN_HEIGHT), Minesweeper.MAX_HUGE_HEIGHT);
+        this.mines = min(max(mines, Minesweeper.MIN_MINES), Minesweeper.maxHugeMines(this.width * this.height));
+        this.flag = new AtomicInteger(this.mines);
+    }
+
+    /**
+     * Starts the game from its first square with a random seed.
+     *
+     * @return whether this call started the game, false when another player already did
+     */
+    public boolean start(int rows, int cols) {
+        return start(rows, cols, ThreadLocalRandom.current().nextLong());
+    }
+
+    public boolean start(int rows, int cols, long seed) {
+        if (!status.compareAndSet(NEW, STARTING)) {
+            return false;
+        }
+        byte[] layout = ArrayBoard.buried(width, height, rows * width + cols, mines, seed);
+
+        this.seed = seed;
+        safe.set(width * height - mines);
+        cells = layout;
+        status.set(PLAYING);
+        select(rows, cols);
+        return true;
+    }
+
+    /**
+     * @return squares opened by this call
+     */
+    public int select(int rows, int cols) {
+        if (status.get() != PLAYING) {
+            return 0;
+        }
+        return select(rows * width + cols);
+    }
+
+    private int select(int index) {
+        byte state = get(index);
+        if (Cell.isOpened(state) || Cell.getFlag(state) == Cell.FLAG_UP) {
+            return 0;
+        }
+        if (Cell.isEmpty(state)) {
+            return selectEmpty(index);
+        }
+        return open(index, false) ? 1 : 0;
+    }
+
+    /**
+     * Claims a square. Only the player whose compare-and-set opens it counts it.
+     *
+     * @param flagged whether a flag up is opened too, as by a cascade; a square selected directly is left alone when
+     *                another player flags it first
+     */
+    private boolean open(int index, boolean flagged) {
+        byte state;
+        do {
+            state = get(index);
+            if (Cell.isOpened(state) || !flagged && Cell.isFlagUp(state)) {
+                return false;
+            }
+        } while (!SQUARES.compareAndSet(cells, index, state, Cell.setOpened(state)));
+
+        if (openedListener != null) {
+            openedListener.accept(index / width, index % width, new Cell(Cell.setOpened(state)));
+        }
+        if (Cell.isMine(state)) {
+            over(LOST);
+        } else if (safe.decrementAndGet() == 0) {
+            over(CLEARED);
+        }
+        return true;
+    }
+
+    private boolean isClosedEmpty(int index) {
+        byte state = get(index);
+        return !Cell.isOpened(state) && Cell.isEmpty(state);
+    }
+
+    /**
+     * Scanline fill as in {@link Minesweeper}, on a stack of the calling thread. A run already opened by another player
+     * is left to that player, who claimed it and looks at its neighbors.
+     */
+    private int selectEmpty(int index) {
+        int[][] holder = stacks.get();
+        int[] stack = holder[0];
+        int size = 0, opened = 0;
+        stack[size++] = index;
+
+        while (size > 0) {
+            int seed = stack[--size];
+            if (Cell.isOpened(get(seed))) {
+                continue;
+            }
+
+            int rows = seed / width, offset = rows * width;
+            int left = seed - offset, right = left;
+            while (0 < left && isClosedEmpty(offset + left - 1)) {
+                left--;
+            }
+            while (right < width - 1 && isClosedEmpty(offset + right + 1)) {
+                right++;
+            }
+
+            left = max(left - 1, 0);
+            right = min(right + 1, width - 1);
+            for (int x = left; x <= right; x++) {
+                if (open(offset + x, true)) {
+                    opened++;
+                }
+            }
+
+            for (int y = rows - 1; y < rows + 2; y += 2) {
+                if (y < 0 || height <= y) {
+                    continue;
+                }
+
+                boolean run = false;
+                for (int x = left; x <= right; x++) {
+                    int i = y * width + x;
+                    byte state = get(i);
+                    if (Cell.isOpened(state)) {
+                        run = false;
+                    } else if (!Cell.isEmpty(state)) {
+                        if (open(i, true)) {
+                            opened++;
+                        }
+                        run = false;
+                    } else if (!run) {
+                        if (size == stack.length) {
+                            holder[0] = stack = Arrays.copyOf(stack, size << 1);
+                        }
+                        stack[size++] = i;
+                        run = true;
+                    }
+                }
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * @return whether this call changed the flag
+     */
+    public boolean changeFlag(int rows, int cols) {
+        if (status.get() != PLAYING) {
+            return false;
+        }
+        int index = rows * width + cols;
+        byte state;
+        do {
+            state = get(index);
+            if (Cell.isOpened(state)) {
+                return false;
+            }
+        } while (!SQUARES.compareAndSet(cells, index, state, Cell.changeFlag(state)));
+
+        switch (Cell.getFlag(state)) {
+            case Cell.FLAG_NONE:
+                flag.decrementAndGet();
+                break;
+            case Cell.FLAG_UP:
+                flag.incrementAndGet();
+                break;
+        }
+        if (flagListener != null) {
+            flagListener.accept(rows, cols, Cell.getFlag(state));
+        }
+        return true;
+    }
+
+    /**
+     * Opens every neighbor not flagged of an opened number whose flags around it match it.
+     *
+     * @return squares opened by this call
+     */
+    public int exploreMine(int rows, int cols) {
+        if (status.get() != PLAYING) {
+            return 0;
+        }
+        byte state = get(rows * width + cols);
+        if (!Cell.isOpened(state) || !Cell.isNearby(state)) {
+            return 0;
+        }
+
+        int flags = 0;
+        for (int y = max(rows - 1, 0); y < min(rows + 2, height); y++) {
+            for (int x = max(cols - 1, 0); x < min(cols + 2, width); x++) {
+                if (Cell.getFlag(get(y * width + x)) == Cell.FLAG_UP) {
+                    flags++;
+                }
+            }
+        }
+        if (Cell.getNearby(state) != flags) {
+            return 0;
+        }
+
+        int opened = 0;
+        for (int y = max(rows - 1, 0); y < min(rows + 2, height); y++) {
+            for (int x = max(cols - 1, 0); x < min(cols + 2, width); x++) {
+                opened += select(y * width + x);
+            }
+        }
+        return opened;
+    }
+
+    private void over(int outcome) {
+        if (status.compareAndSet(PLAYING, outcome)) {
+            overListener.accept(outcome == CLEARED);
+        }
+    }
+
+    private byte get(int index) {
+        return (byte) SQUARES.getAcquire(cells, index);
+    }
+
+    public Cell getCell(int rows, int cols) {
+        return new Cell(get(rows * width + cols));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getMines() {
+        return mines;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getFlag() {
+        return flag.get();
+    }
+
+    public boolean isStart() {
+        return status.get() != NEW;
+    }
+
+    public boolean isOver() {
+        return status.get() > PLAYING;
+    }
+
+    public boolean isClear() {
+        return status.get() == CLEARED;
+    }
+
+    public ConcurrentMinesweeper setOpenedListener(LocObjConsumer<Cell> listener) {
+        openedListener = listener;
+        return this;
+    }
+
+    public ConcurrentMinesweeper setFlagListener(LocObjConsumer<Byte> listener) {
+        flagListener = listener;
+        return this;
+    }
+
+    /**
+     * Listener called exactly once, by the player that cleared or lost the game.
+     */
+    public ConcurrentMinesweeper setOverListener(Consumer<Boolean> listener) {
+        overListener = listener;
+        return this;
+    }
+
+}
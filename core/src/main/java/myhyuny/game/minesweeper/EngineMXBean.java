@@ -0,0 +1,32 @@
+package myhyuny.game.minesweeper;
+
+/**
+ * Counters of every game in the process metered with {@link Minesweeper#setMetered(boolean)}, registered as
+ * {@value Metrics#NAME}. Rates are over the last second or so.
+ *
+ * @author Hyunmin Kang
+ */
+public interface EngineMXBean {
+
+    long getGamesStarted();
+
+    long getGamesFinished();
+
+    double getGamesStartedPerSecond();
+
+    double getGamesFinishedPerSecond();
+
+    long getCascades();
+
+    double getAverageCascadeSize();
+
+    long getOperations();
+
+    /**
+     * @return 99th percentile of the time a select, flag change or chord takes, in nanoseconds
+     */
+    long getP99LatencyNanos();
+
+    void reset();
+
+}
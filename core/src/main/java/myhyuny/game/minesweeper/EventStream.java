@@ -0,0 +1,334 @@
+package myhyuny.game.minesweeper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Every change of one game, published to any number of subscribers such as spectators, see
+ * {@link Minesweeper#setEvents(EventStream)}.
+ * <p>
+ * The thread playing the game only encodes each {@link Update} once and hands it over; fanning it out to the
+ * subscribers and calling them happens on the executor, so a slow subscriber never holds the game up. Each subscriber
+ * keeps up to {@code buffer} updates it has not asked for yet. One that falls further behind gets a single keyframe of
+ * the game as it stands in place of the updates it had not taken, the same keyframe for every subscriber that falls
+ * behind at the same point. A new subscriber starts with a keyframe as well.
+ *
+ * @author Hyunmin Kang
+ */
+public final class EventStream implements Flow.Publisher<Update>, AutoCloseable {
+
+    private final int buffer;
+    private final Executor executor;
+
+    // Taken by the thread playing the game only.
+    private Minesweeper game = null;
+    private long sequence = 0;
+    private long status = -1;
+
+    private final List<Update> incoming = new ArrayList<>();
+    private final Queue<Subscription> joining = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger dispatching = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    // Taken by the dispatcher only.
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private final Map<Integer, Byte> squares = new HashMap<>();
+    private Update last = null;
+    private Update keyframe = null;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public EventStream() {
+        this(256);
+    }
+
+    public EventStream(int buffer) {
+        this(buffer, ForkJoinPool.commonPool());
+    }
+
+    public EventStream(int buffer, Executor executor) {
+        this.buffer = Math.max(buffer, 1);
+        this.executor = executor;
+    }
+
+    /**
+     * Starts streaming the game with a keyframe of it as it is now.
+     */
+    void attach(Minesweeper game) {
+        if (this.game != null && this.game != game) {
+            throw new IllegalStateException("Already streaming another game");
+        }
+        this.game = game;
+        status = status(game);
+        offer(Update.keyframe(++sequence, game));
+    }
+
+    /**
+     * Publishes the squares changed, unless neither a square nor the game changed.
+     */
+    void publish(Update.Kind kind, Region region) {
+        long status = status(game);
+        if (region.isEmpty() && status == this.status) {
+            return;
+        }
+        this.status = status;
+        offer(Update.of(++sequence, kind, game, region));
+    }
+
+    private static long status(Minesweeper game) {
+        return (long) game.getFlag() << 3 | (game.isStart() ? 4 : 0) | (game.isOver() ? 2 : 0)
+            | (game.isClear() ? 1 : 0);
+    }
+
+    private void offer(Update update) {
+        if (closed) {
+            return;
+        }
+        synchronized (incoming) {
+            if (incoming.size() < buffer) {
+                incoming.add(update);
+            } else {
+                // The dispatcher itself is behind: fold everything it has not taken yet into one update.
+                incoming.add(update);
+                Update merged = Update.merge(incoming);
+                incoming.clear();
+                incoming.add(merged);
+                coalesced.incrementAndGet();
+            }
+        }
+        published.incrementAndGet();
+        dispatch();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Update> subscriber) {
+        Objects.requireNonNull(subscriber);
+        Subscription subscription = new Subscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        joining.add(subscription);
+        dispatch();
+    }
+
+    /**
+     * Completes every subscriber once it has taken what was published before, and any subscriber from now on.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        dispatch();
+    }
+
+    private void dispatch() {
+        if (dispatching.getAndIncrement() == 0) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            for (Subscription subscription; (subscription = joining.poll()) != null; ) {
+                subscriptions.add(subscription);
+                subscribers.incrementAndGet();
+                if (last != null) {
+                    subscription.offer(keyframe());
+                }
+            }
+            List<Update> updates;
+            synchronized (incoming) {
+                updates = new ArrayList<>(incoming);
+                incoming.clear();
+            }
+            for (Update update : updates) {
+                fold(update);
+                for (Iterator<Subscription> iterator = subscriptions.iterator(); iterator.hasNext(); ) {
+                    Subscription subscription = iterator.next();
+                    if (subscription.cancelled) {
+                        iterator.remove();
+                        subscribers.decrementAndGet();
+                    } else if (!subscription.offer(update)) {
+                        subscription.replace(keyframe());
+                        coalesced.incrementAndGet();
+                    }
+                }
+            }
+            if (closed && isIdle()) {
+                for (Subscription subscription : subscriptions) {
+                    subscription.complete();
+                }
+                subscribers.addAndGet(-subscriptions.size());
+                subscriptions.clear();
+            }
+            missed = dispatching.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private boolean isIdle() {
+        synchronized (incoming) {
+            return incoming.isEmpty();
+        }
+    }
+
+    /**
+     * Keeps the squares as of the update, for keyframes.
+     */
+    private void fold(Update update) {
+        if (update.getKind() == Update.Kind.KEYFRAME) {
+            squares.clear();
+        }
+        for (int i = 0; i < update.getCount(); i++) {
+            byte state = update.getState(i);
+            if (state == 0) {
+                squares.remove(update.getIndex(i));
+            } else {
+                squares.put(update.getIndex(i), state);
+            }
+        }
+        last = update;
+        keyframe = null;
+    }
+
+    private Update keyframe() {
+        if (keyframe == null) {
+            keyframe = Update.keyframe(last, squares);
+        }
+        return keyframe;
+    }
+
+    /**
+     * @return updates handed over by the game
+     */
+    public long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * @return times updates not taken yet were folded into one, by the dispatcher or for a subscriber behind
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public int getSubscribers() {
+        return subscribers.get();
+    }
+
+    private final class Subscription implements Flow.Subscription, Runnable {
+        final Flow.Subscriber<? super Update> subscriber;
+        final ArrayDeque<Update> queue = new ArrayDeque<>();
+        final AtomicLong requested = new AtomicLong();
+        final AtomicInteger draining = new AtomicInteger();
+        volatile boolean cancelled = false;
+        volatile boolean done = false;
+        volatile Throwable failure = null;
+
+        Subscription(Flow.Subscriber<? super Update> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * @return false when the subscriber already has {@code buffer} updates it has not taken
+         */
+        boolean offer(Update update) {
+            synchronized (queue) {
+                if (buffer <= queue.size()) {
+                    return false;
+                }
+                queue.add(update);
+            }
+            signal();
+            return true;
+        }
+
+        void replace(Update keyframe) {
+            synchronized (queue) {
+                queue.clear();
+                queue.add(keyframe);
+            }
+            signal();
+        }
+
+        void complete() {
+            done = true;
+            signal();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("Non-positive request: " + n);
+            } else {
+                requested.getAndUpdate(r -> Long.MAX_VALUE - r < n ? Long.MAX_VALUE : r + n);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            synchronized (queue) {
+                queue.clear();
+            }
+        }
+
+        private void signal() {
+            if (draining.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        /**
+         * Calls the subscriber, never from two threads at once.
+         */
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                while (!cancelled) {
+                    if (failure != null) {
+                        cancel();
+                        subscriber.onError(failure);
+                        break;
+                    }
+                    Update update;
+                    boolean empty;
+                    synchronized (queue) {
+                        empty = queue.isEmpty();
+                        update = empty || requested.get() == 0 ? null : queue.poll();
+                    }
+                    if (update == null) {
+                        if (empty && done) {
+                            cancel();
+                            subscriber.onComplete();
+                        }
+                        break;
+                    }
+                    if (requested.get() != Long.MAX_VALUE) {
+                        requested.decrementAndGet();
+                    }
+                    try {
+                        subscriber.onNext(update);
+                    } catch (Throwable e) {
+                        cancel();
+                    }
+                }
+                missed = draining.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package myhyuny.game.minesweeper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of the engine, with the board it happened on.
+ *
+ * @author Hyunmin Kang
+ */
+@Category("Minesweeper")
+@StackTrace(false)
+abstract class GameEvent extends jdk.jfr.Event {
+
+    @Label("Width")
+    int width;
+
+    @Label("Height")
+    int height;
+
+    @Label("Mines")
+    int mines;
+
+    @Label("Density")
+    float density;
+
+    void set(Minesweeper game) {
+        width = game.getWidth();
+        height = game.getHeight();
+        mines = game.getMines();
+        density = mines / (float) (width * height);
+    }
+
+}
@@ -0,0 +1,18 @@
+package myhyuny.game.minesweeper;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Mines buried for a new game.
+ *
+ * @author Hyunmin Kang
+ */
+@Name("myhyuny.minesweeper.Generation")
+@Label("Board Generation")
+final class GenerationEvent extends GameEvent {
+
+    @Label("Pooled")
+    boolean pooled;
+
+}
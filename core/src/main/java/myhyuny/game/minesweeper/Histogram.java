@@ -0,0 +1,84 @@
+package myhyuny.game.minesweeper;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds, 8 buckets per power of two, so percentiles are good to within an
+ * eighth. Each bucket is striped, so that threads recording at once do not contend on the same cache line.
+ *
+ * @author Hyunmin Kang
+ */
+public final class Histogram {
+
+    private static final int BUCKETS = 61 << 3;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        counts[bucket(nanos)].increment();
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts[i].sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return upper bound of the bucket holding the given percentile, 0 when empty
+     */
+    public long percentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += snapshot[i] = counts[i].sum();
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100d);
+        for (int i = 0; i < BUCKETS; i++) {
+            rank -= snapshot[i];
+            if (rank <= 0) {
+                return i + 1 < BUCKETS ? lower(i + 1) - 1 : lower(i);
+            }
+        }
+        return lower(BUCKETS - 1);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i].reset();
+        }
+    }
+
+    /**
+     * p50, p90, p99, p99.9 and the count, in microseconds.
+     */
+    public String summary() {
+        return String.format("n=%d p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus", count(),
+            percentile(50) / 1e3d, percentile(90) / 1e3d, percentile(99) / 1e3d, percentile(99.9) / 1e3d);
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < 8) {
+            return (int) Math.max(nanos, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        return (exponent - 2) << 3 | (int) (nanos >>> (exponent - 3)) & 7;
+    }
+
+    static long lower(int bucket) {
+        int exponent = bucket >>> 3;
+        return exponent == 0 ? bucket : (8L | bucket & 7) << (exponent - 1);
+    }
+
+}
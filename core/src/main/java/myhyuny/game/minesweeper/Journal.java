@@ -0,0 +1,170 @@
+package myhyuny.game.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * Squares changed by every action of a game, with their state before and after, for undo and redo. Changes are kept
+ * in flat primitive arrays; each action only remembers where its changes end and the counters around it.
+ *
+ * @author Hyunmin Kang
+ */
+final class Journal {
+
+    static final int PLAYING = 0;
+    static final int CLEARED = 1;
+    static final int LOST = 2;
+
+    private static final int END = 0;
+    private static final int CLOSES = 1;
+    private static final int FLAG = 2;
+    private static final int AFTER = 2;
+    private static final int OUTCOME = 5;
+    private static final int STRIDE = 6;
+
+    private int[] squares = new int[256];
+    private byte[] before = new byte[256];
+    private byte[] after = new byte[256];
+    private int size = 0;
+
+    private int[] actions = new int[STRIDE * 16];
+    private int count = 0;
+    private int position = 0;
+
+    private boolean begun = false;
+    private boolean changed = false;
+    private int closes;
+    private int flag;
+    private int outcome = PLAYING;
+
+    void begin(int closes, int flag) {
+        this.closes = closes;
+        this.flag = flag;
+        outcome = PLAYING;
+        begun = true;
+        changed = false;
+    }
+
+    /**
+     * The first change of an action drops the actions undone before it, so that one changing nothing keeps them for
+     * redo.
+     */
+    void change(int index, byte before, byte after) {
+        if (!begun) {
+            return;
+        }
+        if (!changed) {
+            changed = true;
+            count = position;
+            size = from(position);
+            if (actions.length < (count + 1) * STRIDE) {
+                actions = Arrays.copyOf(actions, actions.length << 1);
+            }
+            actions[count * STRIDE + CLOSES] = closes;
+            actions[count * STRIDE + FLAG] = flag;
+        }
+        if (size == squares.length) {
+            squares = Arrays.copyOf(squares, size << 1);
+            this.before = Arrays.copyOf(this.before, size << 1);
+            this.after = Arrays.copyOf(this.after, size << 1);
+        }
+        squares[size] = index;
+        this.before[size] = before;
+        this.after[size] = after;
+        size++;
+    }
+
+    void over(boolean clear) {
+        outcome = clear ? CLEARED : LOST;
+    }
+
+    /**
+     * Keeps the action begun, unless it changed nothing.
+     */
+    void end(int closes, int flag) {
+        if (!begun) {
+            return;
+        }
+        begun = false;
+        if (!changed) {
+            return;
+        }
+        int offset = count * STRIDE;
+        actions[offset + END] = size;
+        actions[offset + CLOSES + AFTER] = closes;
+        actions[offset + FLAG + AFTER] = flag;
+        actions[offset + OUTCOME] = outcome;
+        position = ++count;
+    }
+
+    void clear() {
+        size = 0;
+        count = 0;
+        position = 0;
+        begun = false;
+        changed = false;
+    }
+
+    boolean canUndo() {
+        return position > 0;
+    }
+
+    boolean canRedo() {
+        return position < count;
+    }
+
+    /**
+     * @return action to undo
+     */
+    int undo() {
+        return --position;
+    }
+
+    /**
+     * @return action to redo
+     */
+    int redo() {
+        return position++;
+    }
+
+    /**
+     * @return first change of an action
+     */
+    int from(int action) {
+        return action == 0 ? 0 : actions[(action - 1) * STRIDE + END];
+    }
+
+    /**
+     * @return change past the last one of an action
+     */
+    int to(int action) {
+        return actions[action * STRIDE + END];
+    }
+
+    int square(int change) {
+        return squares[change];
+    }
+
+    byte state(int change, boolean redo) {
+        return redo ? after[change] : before[change];
+    }
+
+    int closes(int action, boolean redo) {
+        return actions[action * STRIDE + CLOSES + (redo ? AFTER : 0)];
+    }
+
+    int flag(int action, boolean redo) {
+        return actions[action * STRIDE + FLAG + (redo ? AFTER : 0)];
+    }
+
+    int outcome(int action) {
+        return actions[action * STRIDE + OUTCOME];
+    }
+
+    /**
+     * @return bytes held by the recorded changes
+     */
+    long getBytes() {
+        return size * 6L + count * STRIDE * 4L;
+    }
+
+}
@@ -0,0 +1,128 @@
+package myhyuny.game.minesweeper;
+
+import static java.lang.System.nanoTime;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process wide engine counters behind {@link EngineMXBean}. Operation latencies go to a {@link Histogram}.
+ *
+ * @author Hyunmin Kang
+ */
+final class Metrics implements EngineMXBean {
+
+    static final String NAME = "myhyuny.game.minesweeper:type=Engine";
+
+    static final Metrics INSTANCE = new Metrics();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(NAME));
+        } catch (JMException | SecurityException e) {
+            // Already registered by another copy of the engine, or not allowed: counting goes on unpublished.
+        }
+    }
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder finished = new LongAdder();
+    private final LongAdder cascades = new LongAdder();
+    private final LongAdder cascaded = new LongAdder();
+    private final Histogram latencies = new Histogram();
+
+    private final Rate startedRate = new Rate();
+    private final Rate finishedRate = new Rate();
+
+    private Metrics() {
+    }
+
+    void started() {
+        started.increment();
+    }
+
+    void finished() {
+        finished.increment();
+    }
+
+    void cascade(int opened) {
+        cascades.increment();
+        cascaded.add(opened);
+    }
+
+    void operation(long nanos) {
+        latencies.record(nanos);
+    }
+
+    @Override
+    public long getGamesStarted() {
+        return started.sum();
+    }
+
+    @Override
+    public long getGamesFinished() {
+        return finished.sum();
+    }
+
+    @Override
+    public double getGamesStartedPerSecond() {
+        return startedRate.of(started.sum());
+    }
+
+    @Override
+    public double getGamesFinishedPerSecond() {
+        return finishedRate.of(finished.sum());
+    }
+
+    @Override
+    public long getCascades() {
+        return cascades.sum();
+    }
+
+    @Override
+    public double getAverageCascadeSize() {
+        long count = cascades.sum();
+        return count == 0 ? 0d : (double) cascaded.sum() / count;
+    }
+
+    @Override
+    public long getOperations() {
+        return latencies.count();
+    }
+
+    @Override
+    public long getP99LatencyNanos() {
+        return latencies.percentile(99);
+    }
+
+    @Override
+    public void reset() {
+        started.reset();
+        finished.reset();
+        cascades.reset();
+        cascaded.reset();
+        latencies.reset();
+    }
+
+    /**
+     * Events per second between the last two reads at least a second apart.
+     */
+    private static final class Rate {
+        private long time = nanoTime();
+        private long count = 0;
+        private double rate = 0d;
+
+        synchronized double of(long total) {
+            long now = nanoTime();
+            if (now - time >= 1_000_000_000L || total < count) {
+                rate = Math.max(total - count, 0) * 1e9d / (now - time);
+                time = now;
+                count = total;
+            }
+            return rate;
+        }
+    }
+
+}
@@ -0,0 +1,1046 @@
+package myhyuny.game.minesweeper;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.round;
+import static java.lang.System.nanoTime;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * @author Hyunmin Kang
+ */
+public class Minesweeper {
+
+    public static final int MIN_WIDTH = 9;
+    public static final int MAX_WIDTH = 30;
+
+    public static final int MIN_HEIGHT = 9;
+    public static final int MAX_HEIGHT = 24;
+
+    public static final int MIN_MINES = 10;
+    public static final int MAX_MINES = 667;
+
+    public static final int MAX_HUGE_WIDTH = 1 << 15;
+    public static final int MAX_HUGE_HEIGHT = 1 << 15;
+
+    private final int mines;
+    private final int width;
+    private final int height;
+
+    private final RandomGenerator random;
+    private final Board board;
+    private NoGuess noGuess = null;
+    private BoardPool pool = null;
+    private Recording recording = null;
+    private Journal journal = null;
+
+    private long seed;
+    private int first;
+    private long started;
+    private long elapsed = 0;
+    private int closes = 0;
+    private int flag;
+    private boolean start = false;
+    private boolean over = false;
+    private boolean undone = false;
+    private boolean clear = false;
+    private int clicks = 0;
+
+    private final Cell cell = new Cell();
+    private int[] stack = new int[64];
+    private final int[] around = new int[Topology.MAX_NEIGHBORS];
+    private final int[] spread = new int[Topology.MAX_NEIGHBORS];
+    private boolean autoChord = false;
+    private int[] chords = new int[16];
+    private int chordCount = 0;
+    private final Region region = new Region();
+    private boolean regions = false;
+    private boolean metered = false;
+    private int actions = 0;
+    private long operation;
+
+    private Runnable startedListener = () -> {};
+
+    private Runnable stoppedListener = () -> {};
+
+    private Consumer<Boolean> overListener = (c) -> {};
+
+    private Runnable restartListener = () -> {};
+
+    private LocObjConsumer<Cell> openedListener = (c, r, e) -> {};
+
+    private LocObjConsumer<Byte> flagListener = (c, r, f) -> {};
+
+    private LocationConsumer explodedListener = (c, r) -> {};
+
+    private LocObjConsumer<Byte> closedListener = (c, r, f) -> {};
+
+    private Consumer<Region> regionListener = null;
+
+    private EventStream events = null;
+
+    public Minesweeper(int width, int height, int mines) {
+        this(width, height, mines, new SplittableRandom());
+    }
+
+    public Minesweeper(int width, int height, int mines, long seed) {
+        this(width, height, mines, new SplittableRandom(seed));
+    }
+
+    public Minesweeper(int width, int height, int mines, RandomGenerator random) {
+        this(width, height, mines, random, Topology.RECTANGULAR);
+    }
+
+    public Minesweeper(int width, int height, int mines, Topology topology) {
+        this(width, height, mines, new SplittableRandom(), topology);
+    }
+
+    public Minesweeper(int width, int height, int mines, long seed, Topology topology) {
+        this(width, height, mines, new SplittableRandom(seed), topology);
+    }
+
+    public Minesweeper(int width, int height, int mines, RandomGenerator random, Topology topology) {
+        this(new ArrayBoard(min(max(width, MIN_WIDTH), MAX_WIDTH), min(max(height, MIN_HEIGHT), MAX_HEIGHT),
+            topology), mines, MAX_MINES, random);
+    }
+
+    private Minesweeper(Board board, int mines, int maxMines, RandomGenerator random) {
+        this.board = board;
+        this.random = random;
+        this.width = board.getWidth();
+        this.height = board.getHeight();
+        this.mines = min(max(mines, MIN_MINES), min(maxHugeMines(width * height), maxMines));
+        this.flag = this.mines;
+    }
+
+    public static Minesweeper huge(int width, int height, int mines) {
+        return huge(width, height, mines, new SplittableRandom());
+    }
+
+    public static Minesweeper huge(int width, int height, int mines, long seed) {
+        return huge(width, height, mines, new SplittableRandom(seed));
+    }
+
+    /**
+     * Board of up to {@code MAX_HUGE_WIDTH} x {@code MAX_HUGE_HEIGHT} squares whose memory grows with the explored
+     * area, not with its size.
+     */
+    public static Minesweeper huge(int width, int height, int mines, RandomGenerator random) {
+        Board board = new ChunkedBoard(
+            min(max(width, MIN_WIDTH), MAX_HUGE_WIDTH), min(max(height, MIN_HEIGHT), MAX_HUGE_HEIGHT));
+        return new Minesweeper(board, mines, Integer.MAX_VALUE, random);
+    }
+
+    /**
+     * @return new game of the same kind, size and mines, not started yet
+     */
+    Minesweeper blank() {
+        return new Minesweeper(board.blank(), mines, Integer.MAX_VALUE, new SplittableRandom(0L));
+    }
+
+    /**
+     * @return every mine of a seed placed, for a board made ahead of time, or {@code null} when not worth it
+     */
+    byte[] layout(long seed) {
+        return board.layout(mines, seed);
+    }
+
+    public static int maxMines(int mines) {
+        return min(maxHugeMines(mines), MAX_MINES);
+    }
+
+    public static int maxHugeMines(int mines) {
+        return (int) round(mines / (639d / 601d) - 9);
+    }
+
+    public void select(int rows, int cols) {
+        begin(Recording.SELECT, rows, cols);
+        select(rows * width + cols);
+        commit();
+    }
+
+    private void select(int index) {
+        byte state = board.get(index);
+        if (Cell.isOpened(state)) {
+            return;
+        }
+        if (!over && Cell.getFlag(state) != Cell.FLAG_UP) {
+            if (Cell.isEmpty(state)) {
+                selectEmpty(index);
+            } else {
+                open(index);
+                if (Cell.isMine(state)) {
+                    selectMine();
+                }
+            }
+        }
+        // Not when the square was the mine that just lost the game with a single safe square left.
+        if (!over && closes == mines) {
+            over(true);
+        }
+    }
+
+    private void open(int index) {
+        byte state = board.get(index);
+        if (Cell.isOpened(state)) {
+            return;
+        }
+
+        closes--;
+        byte opened = Cell.setOpened(state);
+        board.set(index, opened);
+        if (journal != null) {
+            journal.change(index, state, opened);
+        }
+        if (regions) {
+            region.addOpened(index);
+        }
+        openedListener.accept(index / width, index % width, cell.wrap(opened));
+        queueChord(index);
+    }
+
+    private boolean isClosedEmpty(int index) {
+        byte state = board.get(index);
+        return !Cell.isOpened(state) && Cell.isEmpty(state);
+    }
+
+    private void selectEmpty(int index) {
+        stack[0] = index;
+        cascade(1);
+    }
+
+    /**
+     * Opens every empty square reached from the first {@code size} seeds on the stack, and the squares around them.
+     */
+    private void cascade(int size) {
+        if (size == 0) {
+            return;
+        }
+        CascadeEvent event = new CascadeEvent();
+        event.begin();
+        int before = closes;
+
+        if (board.getTopology() == Topology.RECTANGULAR) {
+            scanline(size);
+        } else {
+            spread(size);
+        }
+
+        if (metered) {
+            Metrics.INSTANCE.cascade(before - closes);
+        }
+        if (event.shouldCommit()) {
+            event.set(this);
+            event.opened = before - closes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Depth first fill over the squares around each empty square.
+     */
+    private void spread(int size) {
+        while (size > 0) {
+            int seed = stack[--size];
+            if (Cell.isOpened(board.get(seed))) {
+                continue;
+            }
+            open(seed);
+            for (int n = 0, count = board.neighbors(seed, spread); n < count; n++) {
+                int i = spread[n];
+                byte state = board.get(i);
+                if (Cell.isOpened(state)) {
+                    continue;
+                }
+                if (Cell.isEmpty(state)) {
+                    size = push(size, i);
+                } else {
+                    open(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scanline fill: every run of closed empty squares on a row is opened at once together with the squares around
+     * it, and only the first square of each run found on the rows above and below is pushed as a new seed.
+     */
+    private void scanline(int size) {
+        while (size > 0) {
+            int seed = stack[--size];
+            if (Cell.isOpened(board.get(seed))) {
+                continue;
+            }
+
+            int rows = seed / width, offset = rows * width;
+            int left = seed - offset, right = left;
+            while (0 < left && isClosedEmpty(offset + left - 1)) {
+                left--;
+            }
+            while (right < width - 1 && isClosedEmpty(offset + right + 1)) {
+                right++;
+            }
+
+            left = max(left - 1, 0);
+            right = min(right + 1, width - 1);
+            for (int x = left; x <= right; x++) {
+                open(offset + x);
+            }
+
+            for (int y = rows - 1; y < rows + 2; y += 2) {
+                if (y < 0 || height <= y) {
+                    continue;
+                }
+
+                boolean run = false;
+                for (int x = left; x <= right; x++) {
+                    int i = y * width + x;
+                    byte state = board.get(i);
+                    if (Cell.isOpened(state)) {
+                        run = false;
+                    } else if (!Cell.isEmpty(state)) {
+                        open(i);
+                        run = false;
+                    } else if (!run) {
+                        size = push(size, i);
+                        run = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private int push(int size, int index) {
+        if (size == stack.length) {
+            stack = Arrays.copyOf(stack, size << 1);
+        }
+        stack[size++] = index;
+        return size;
+    }
+
+    private void selectMine() {
+        board.forEachMine(i -> {
+            if (regions) {
+                region.addExploded(i);
+            }
+            explodedListener.accept(i / width, i % width);
+        });
+        over(false);
+    }
+
+    public void changeFlag(int rows, int cols) {
+        begin(Recording.FLAG, rows, cols);
+        changeFlag(rows * width + cols);
+        commit();
+    }
+
+    private void changeFlag(int index) {
+        byte state = board.get(index);
+        if (over || Cell.isOpened(state)) {
+            return;
+        }
+
+        switch (Cell.getFlag(state)) {
+            case Cell.FLAG_NONE:
+                flag--;
+                break;
+            case Cell.FLAG_UP:
+                flag++;
+                break;
+        }
+
+        flagListener.accept(index / width, index % width, Cell.getFlag(state));
+        byte changed = Cell.changeFlag(state);
+        board.set(index, changed);
+        if (journal != null) {
+            journal.change(index, state, changed);
+        }
+        if (regions) {
+            region.addFlagged(index);
+        }
+        if (autoChord && Cell.isFlagUp(changed) != Cell.isFlagUp(state)) {
+            for (int n = 0, count = board.neighbors(index, around); n < count; n++) {
+                queueChord(around[n]);
+            }
+        }
+    }
+
+    /**
+     * Hands a square and the squares around it without a flag up to {@code handler}, while the game is played.
+     */
+    public void press(int rows, int cols, LocationConsumer handler) {
+        if (!start || over) {
+            return;
+        }
+        int index = rows * width + cols;
+        if (!Cell.isFlagUp(board.get(index))) {
+            handler.accept(rows, cols);
+        }
+        for (int n = 0, count = board.neighbors(index, around); n < count; n++) {
+            int i = around[n];
+            if (!Cell.isFlagUp(board.get(i))) {
+                handler.accept(i / width, i % width);
+            }
+        }
+    }
+
+    public void exploreMine(int rows, int cols, LocationConsumer handler) {
+        begin(Recording.EXPLORE, rows, cols);
+        ChordEvent event = new ChordEvent();
+        event.begin();
+        int before = closes;
+
+        int index = rows * width + cols;
+        if (start && !over && isChordable(index)) {
+            chord(index);
+        }
+
+        if (!start || !Cell.isOpened(board.get(index))) {
+            handler.accept(rows, cols);
+        }
+        for (int n = 0, count = board.neighbors(index, around); n < count; n++) {
+            int i = around[n];
+            if (!start || !Cell.isOpened(board.get(i))) {
+                handler.accept(i / width, i % width);
+            }
+        }
+
+        if (event.shouldCommit()) {
+            event.set(this);
+            event.opened = before - closes;
+            event.commit();
+        }
+        commit();
+    }
+
+    /**
+     * @return whether a number is opened, has as many flags around as mines and a covered square around without one
+     */
+    private boolean isChordable(int index) {
+        byte state = board.get(index);
+        if (!Cell.isOpened(state) || Cell.isMine(state) || !Cell.isNearby(state)) {
+            return false;
+        }
+        return board.getFlagsAround(index) == Cell.getNearby(state) && 0 < board.getUnflaggedAround(index);
+    }
+
+    /**
+     * Opens every square around a number but the flagged ones, the empty ones in a single cascade. A mine among them
+     * loses the game once the squares before it are opened, unless they cleared it.
+     */
+    private void chord(int index) {
+        int size = 0;
+        for (int n = 0, count = board.neighbors(index, around); n < count; n++) {
+            int i = around[n];
+            byte state = board.get(i);
+            if (Cell.isOpened(state) || Cell.isFlagUp(state)) {
+                continue;
+            }
+            if (Cell.isMine(state)) {
+                cascade(size);
+                size = 0;
+                if (closes != mines) {
+                    open(i);
+                    selectMine();
+                    return;
+                }
+            } else if (Cell.isEmpty(state)) {
+                size = push(size, i);
+            } else {
+                open(i);
+            }
+        }
+        cascade(size);
+        if (!over && closes == mines) {
+            over(true);
+        }
+    }
+
+    /**
+     * Keeps an opened number whose flags around are all up for {@link #autoChord()}.
+     */
+    private void queueChord(int index) {
+        if (!autoChord) {
+            return;
+        }
+        byte state = board.get(index);
+        if (Cell.isOpened(state) && !Cell.isMine(state) && Cell.isNearby(state)
+            && board.getFlagsAround(index) == Cell.getNearby(state)) {
+            if (chordCount == chords.length) {
+                chords = Arrays.copyOf(chords, chordCount << 1);
+            }
+            chords[chordCount++] = index;
+        }
+    }
+
+    /**
+     * Chords the numbers kept by {@link #queueChord(int)}, and those they open in turn, until none is left or the
+     * game is over. Each is recorded as a chord of its own so that a replay without auto-chord plays the same.
+     */
+    private void autoChord() {
+        while (0 < chordCount && !over) {
+            int index = chords[--chordCount];
+            if (isChordable(index)) {
+                if (recording != null) {
+                    recording.action(Recording.EXPLORE, index);
+                }
+                chord(index);
+            }
+        }
+        chordCount = 0;
+    }
+
+    private void begin(int action, int rows, int cols) {
+        if (actions++ == 0) {
+            clicks++;
+            operation = nanoTime();
+            if (recording != null) {
+                recording.action(action, rows * width + cols);
+            }
+            if (journal != null) {
+                journal.begin(closes, flag);
+            }
+        }
+    }
+
+    /**
+     * Hands the squares changed by the outermost action to the region listener and the event stream in one event.
+     */
+    private void commit() {
+        if (actions == 1 && 0 < chordCount) {
+            autoChord();
+        }
+        if (--actions != 0) {
+            return;
+        }
+        if (metered) {
+            Metrics.INSTANCE.operation(nanoTime() - operation);
+        }
+        if (journal != null) {
+            journal.end(closes, flag);
+        }
+        flush(Update.Kind.ACTION);
+    }
+
+    private void flush(Update.Kind kind) {
+        if (regionListener != null && !region.isEmpty()) {
+            regionListener.accept(region);
+        }
+        if (events != null) {
+            events.publish(kind, region);
+        }
+        region.clear();
+    }
+
+    private void buried(int rows, int cols, long seed, byte[] layout) {
+        GenerationEvent event = new GenerationEvent();
+        event.begin();
+
+        this.seed = seed;
+        this.first = rows * width + cols;
+        closes = height * width;
+        board.buried(rows * width + cols, mines, seed, layout);
+
+        if (event.shouldCommit()) {
+            event.set(this);
+            event.pooled = layout != null;
+            event.commit();
+        }
+    }
+
+    public void start(int rows, int cols) {
+        if (noGuess == null && pool != null) {
+            BoardPool.Layout layout = pool.take(this);
+            if (layout != null) {
+                start(rows, cols, layout.seed, layout.cells);
+                return;
+            }
+        }
+        long seed = random.nextLong();
+        start(rows, cols, noGuess != null ? noGuess.search(this, rows, cols, seed) : seed);
+    }
+
+    public void start(int rows, int cols, long seed) {
+        start(rows, cols, seed, null);
+    }
+
+    private void start(int rows, int cols, long seed, byte[] layout) {
+        if (journal != null) {
+            journal.clear();
+        }
+        undone = false;
+        clicks = 1;
+        buried(rows, cols, seed, layout);
+        if (recording != null) {
+            recording.start(this, rows * width + cols);
+        }
+        operation = started = nanoTime();
+        // Started before the first square opens, so that whoever sees it open sees the game started.
+        start = true;
+        actions++;
+        select(rows * width + cols);
+        commit();
+        if (metered) {
+            Metrics.INSTANCE.started();
+        }
+        startedListener.run();
+    }
+
+    /**
+     * Puts back a game saved by {@link Snapshot}: buries the same mines again and takes the counters as they were.
+     * The squares are left to the caller.
+     */
+    void resume(long seed, int first, int closes, int flag, boolean over, boolean clear, long elapsed) {
+        buried(first / width, first % width, seed, null);
+        this.closes = closes;
+        this.flag = flag;
+        this.over = over;
+        this.clear = clear;
+        this.elapsed = elapsed;
+        this.started = nanoTime() - elapsed;
+        start = true;
+    }
+
+    public void stop() {
+        if (start && !over) {
+            elapsed = nanoTime() - started;
+        }
+        over = true;
+        stoppedListener.run();
+    }
+
+    private void over(boolean clear) {
+        if (recording != null) {
+            recording.end();
+        }
+        if (journal != null) {
+            journal.over(clear);
+        }
+        this.clear = clear;
+        stop();
+        if (metered) {
+            Metrics.INSTANCE.finished();
+        }
+        OverEvent event = new OverEvent();
+        if (event.shouldCommit()) {
+            event.set(this);
+            event.clear = clear;
+            event.played = elapsed;
+            event.commit();
+        }
+        overListener.accept(clear);
+    }
+
+    /**
+     * Ends the game and covers again only the squares it touched, each handed to the closed listener without a flag,
+     * along with every mine shown when it was lost, before the restart listener runs. The board keeps its storage for
+     * the next game.
+     */
+    public void restart() {
+        if (recording != null) {
+            recording.end();
+        }
+        boolean lost = over && !clear;
+        stop();
+        if (start) {
+            if (lost) {
+                board.forEachMine(i -> closed(i, (byte) 0));
+            }
+            board.reset(i -> closed(i, (byte) 0));
+        }
+        over = false;
+        clear = false;
+        start = false;
+        flag = mines;
+        elapsed = 0;
+        undone = false;
+        clicks = 0;
+        flush(Update.Kind.RESTART);
+        if (journal != null) {
+            journal.clear();
+        }
+        RestartEvent event = new RestartEvent();
+        if (event.shouldCommit()) {
+            event.set(this);
+            event.commit();
+        }
+        restartListener.run();
+    }
+
+    /**
+     * Takes back the last action of the game, including the one that ended it. Listeners see the squares change back:
+     * the closed listener for squares covered again and the flag listener, with the flag before it in the cycle, for
+     * flags.
+     *
+     * @return whether there was an action to undo
+     */
+    public boolean undo() {
+        if (journal == null || actions != 0 || !journal.canUndo()) {
+            return false;
+        }
+        apply(journal.undo(), false);
+        undone = true;
+        return true;
+    }
+
+    /**
+     * @return whether there was an undone action to play again
+     */
+    public boolean redo() {
+        if (journal == null || actions != 0 || !journal.canRedo()) {
+            return false;
+        }
+        apply(journal.redo(), true);
+        return true;
+    }
+
+    private void apply(int action, boolean redo) {
+        // A recorded game would no longer replay the same.
+        if (recording != null) {
+            recording.end();
+        }
+
+        int outcome = journal.outcome(action);
+        if (!redo && outcome == Journal.LOST) {
+            board.forEachMine(i -> {
+                byte state = board.get(i);
+                if (!Cell.isOpened(state)) {
+                    closed(i, state);
+                }
+            });
+        }
+
+        closes = journal.closes(action, redo);
+        flag = journal.flag(action, redo);
+        int from = journal.from(action), to = journal.to(action);
+        for (int n = 0; n < to - from; n++) {
+            int change = redo ? from + n : to - 1 - n;
+            int index = journal.square(change);
+            byte previous = board.get(index), state = journal.state(change, redo);
+            board.set(index, state);
+
+            if (!Cell.isOpened(previous) && Cell.isOpened(state)) {
+                if (regions) {
+                    region.addOpened(index);
+                }
+                openedListener.accept(index / width, index % width, cell.wrap(state));
+            } else if (Cell.isOpened(previous) && !Cell.isOpened(state)) {
+                closed(index, state);
+            } else {
+                if (regions) {
+                    region.addFlagged(index);
+                }
+                flagListener.accept(index / width, index % width, (byte) ((Cell.getFlag(state) + 2) % 3));
+            }
+        }
+
+        if (redo && outcome == Journal.LOST) {
+            selectMine();
+        } else if (redo && outcome == Journal.CLEARED) {
+            over(true);
+        } else if (!redo && outcome != Journal.PLAYING) {
+            over = false;
+            started = nanoTime() - elapsed;
+            startedListener.run();
+        }
+
+        flush(redo ? Update.Kind.REDO : Update.Kind.UNDO);
+    }
+
+    /**
+     * Tells the closed listener a square is covered again, with the flag of {@code state}.
+     */
+    private void closed(int index, byte state) {
+        if (regions) {
+            region.addClosed(index);
+        }
+        closedListener.accept(index / width, index % width, Cell.getFlag(state));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return index of the first square selected, as {@code rows * width + cols}
+     */
+    int getFirst() {
+        return first;
+    }
+
+    /**
+     * @return nanoseconds played, frozen once the game is over
+     */
+    public long getElapsed() {
+        return start && !over ? nanoTime() - started : elapsed;
+    }
+
+    public int getMines() {
+        return mines;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public Cell getCell(int rows, int cols) {
+        return new Cell(board.get(rows * width + cols));
+    }
+
+    /**
+     * 3BV of the board: the fewest selections that clear it without flags, one per opening of empty squares plus one
+     * per number not next to any. Lays out every square of a huge board.
+     *
+     * @return 0 before the game starts
+     */
+    public int getBoardValue() {
+        if (!start) {
+            return 0;
+        }
+        boolean[] reached = new boolean[width * height];
+        int[] stack = new int[64], around = new int[Topology.MAX_NEIGHBORS];
+        int value = 0;
+        for (int index = 0; index < reached.length; index++) {
+            byte state = board.get(index);
+            if (reached[index] || Cell.isMine(state) || !Cell.isEmpty(state)) {
+                continue;
+            }
+            value++;
+            reached[index] = true;
+            int size = 0;
+            stack[size++] = index;
+            while (size > 0) {
+                int i = stack[--size];
+                for (int n = 0, count = board.neighbors(i, around); n < count; n++) {
+                    int j = around[n];
+                    if (reached[j]) {
+                        continue;
+                    }
+                    reached[j] = true;
+                    if (Cell.isEmpty(board.get(j))) {
+                        if (size == stack.length) {
+                            stack = Arrays.copyOf(stack, size << 1);
+                        }
+                        stack[size++] = j;
+                    }
+                }
+            }
+        }
+        for (int index = 0; index < reached.length; index++) {
+            if (!reached[index] && !Cell.isMine(board.get(index))) {
+                value++;
+            }
+        }
+        return value;
+    }
+
+    public Topology getTopology() {
+        return board.getTopology();
+    }
+
+    /**
+     * Writes the indexes of the squares around a square, itself excluded, in increasing order.
+     *
+     * @param into at least {@link Topology#MAX_NEIGHBORS} long
+     * @return how many were written
+     */
+    int neighbors(int index, int[] into) {
+        return board.neighbors(index, into);
+    }
+
+    Board getBoard() {
+        return board;
+    }
+
+    boolean isHuge() {
+        return board instanceof ChunkedBoard;
+    }
+
+    /**
+     * @return bytes held by the game, roughly: its squares, undo history and scratch space
+     */
+    long getBytes() {
+        return 512L + board.getBytes() + (stack.length + chords.length) * 4L
+            + (journal != null ? journal.getBytes() : 0);
+    }
+
+    /**
+     * @return the square packed as a {@link Cell} is, to be read with its static methods without allocating a view
+     */
+    public byte getState(int rows, int cols) {
+        return board.get(rows * width + cols);
+    }
+
+    public boolean isStart() {
+        return start;
+    }
+
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * @return whether the game is over and was cleared
+     */
+    public boolean isClear() {
+        return over && clear;
+    }
+
+    /**
+     * @return actions taken since the game started, the first square selected included, undo and redo excluded
+     */
+    public int getClicks() {
+        return clicks;
+    }
+
+    public int getFlag() {
+        return flag;
+    }
+
+    /**
+     * Boards of games started from now on, other than with an explicit seed, can be cleared by deduction alone from
+     * the first square selected. {@code null} turns it off.
+     */
+    public Minesweeper setNoGuess(NoGuess noGuess) {
+        this.noGuess = noGuess;
+        return this;
+    }
+
+    /**
+     * Games started from now on, other than with an explicit seed or with {@link #setNoGuess(NoGuess)}, take their
+     * mines from layouts made ahead of time when one is ready. {@code null} turns it off.
+     */
+    public Minesweeper setBoardPool(BoardPool pool) {
+        this.pool = pool;
+        if (pool != null) {
+            pool.warm(this);
+        }
+        return this;
+    }
+
+    /**
+     * Chords by itself, within the action that caused it, every number whose flags around become all up, including
+     * the numbers opened by such a chord. Off by default.
+     */
+    public Minesweeper setAutoChord(boolean autoChord) {
+        this.autoChord = autoChord;
+        chordCount = 0;
+        return this;
+    }
+
+    /**
+     * Keeps every action of the games started from now on so that they can be undone and redone, for practice.
+     */
+    public Minesweeper setUndoable(boolean undoable) {
+        journal = undoable ? new Journal() : null;
+        return this;
+    }
+
+    /**
+     * Counts this game in the engine counters of {@link EngineMXBean}. Off by default, so that games a solver, a bot,
+     * a replay or a restored snapshot plays are left out.
+     */
+    public Minesweeper setMetered(boolean metered) {
+        this.metered = metered;
+        return this;
+    }
+
+    public boolean canUndo() {
+        return journal != null && journal.canUndo();
+    }
+
+    public boolean canRedo() {
+        return journal != null && journal.canRedo();
+    }
+
+    /**
+     * @return whether an action was taken back since the game started
+     */
+    public boolean isUndone() {
+        return undone;
+    }
+
+    Minesweeper setRecording(Recording recording) {
+        this.recording = recording;
+        return this;
+    }
+
+    public Minesweeper setStartedListener(Runnable listener) {
+        startedListener = listener;
+        return this;
+    }
+
+    public Minesweeper setStoppedListener(Runnable listener) {
+        stoppedListener = listener;
+        return this;
+    }
+
+    public Minesweeper setOverListener(Consumer<Boolean> listener) {
+        overListener = listener;
+        return this;
+    }
+
+    public Minesweeper setRestartListener(Runnable listener) {
+        restartListener = listener;
+        return this;
+    }
+
+    public Minesweeper setOpenedListener(LocObjConsumer<Cell> listener) {
+        openedListener = listener;
+        return this;
+    }
+
+    public Minesweeper setExplodedListener(LocationConsumer listener) {
+        explodedListener = listener;
+        return this;
+    }
+
+    /**
+     * Listener receiving squares covered again, with their flag: by an undo, or by {@link #restart()}, which hands it
+     * every square the game touched, and every mine of a lost game, without a flag.
+     */
+    public Minesweeper setClosedListener(LocObjConsumer<Byte> listener) {
+        closedListener = listener;
+        return this;
+    }
+
+    public Minesweeper setFlagListener(LocObjConsumer<Byte> listener) {
+        flagListener = listener;
+        return this;
+    }
+
+    /**
+     * Optional listener receiving every square opened, exploded or flagged by a single action at once, in addition to
+     * the per square listeners.
+     */
+    public Minesweeper setRegionListener(Consumer<Region> listener) {
+        regionListener = listener;
+        regions = regionListener != null || events != null;
+        region.clear();
+        return this;
+    }
+
+    /**
+     * Publishes every change of the game from now on, starting with the game as it is, to the subscribers of the
+     * stream, however many. A stream follows a single game. {@code null} stops publishing without completing it.
+     */
+    public Minesweeper setEvents(EventStream events) {
+        if (events != null) {
+            events.attach(this);
+        }
+        this.events = events;
+        regions = regionListener != null || events != null;
+        region.clear();
+        return this;
+    }
+
+}
+
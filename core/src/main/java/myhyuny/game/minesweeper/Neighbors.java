@@ -0,0 +1,55 @@
+package myhyuny.game.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * Squares around every square of a board, as compressed sparse rows: the squares around square {@code i} are
+ * {@code get(from(i))} up to, not including, {@code get(to(i))}, so that going over them needs neither coordinates
+ * nor bounds checks.
+ *
+ * @author Hyunmin Kang
+ */
+final class Neighbors {
+
+    private final int[] offsets;
+    private final int[] indexes;
+
+    Neighbors(Topology topology, int width, int height) {
+        int area = width * height;
+        offsets = new int[area + 1];
+        int[] indexes = new int[area * Topology.MAX_NEIGHBORS], around = new int[Topology.MAX_NEIGHBORS];
+        int size = 0;
+        for (int i = 0; i < area; i++) {
+            offsets[i] = size;
+            int count = topology.neighbors(i / width, i % width, width, height, around);
+            System.arraycopy(around, 0, indexes, size, count);
+            size += count;
+        }
+        offsets[area] = size;
+        this.indexes = Arrays.copyOf(indexes, size);
+    }
+
+    int from(int index) {
+        return offsets[index];
+    }
+
+    int to(int index) {
+        return offsets[index + 1];
+    }
+
+    int get(int n) {
+        return indexes[n];
+    }
+
+    /**
+     * Copies the squares around a square.
+     *
+     * @return how many were copied
+     */
+    int copy(int index, int[] into) {
+        int from = offsets[index], count = offsets[index + 1] - from;
+        System.arraycopy(indexes, from, into, 0, count);
+        return count;
+    }
+
+}
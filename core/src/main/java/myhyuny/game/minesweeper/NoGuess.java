@@ -0,0 +1,129 @@
+package myhyuny.game.minesweeper;
+
+import static java.lang.System.nanoTime;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Searches seeds whose board the {@link Solver} clears from the first square selected. Candidates are tried on several
+ * threads at once; the first one cleared wins and the other threads stop. When nothing is found within the timeout or
+ * the attempts, the first candidate is used as an ordinary board.
+ *
+ * @author Hyunmin Kang
+ */
+public final class NoGuess {
+
+    private static final long GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    private long timeout = TimeUnit.SECONDS.toNanos(5L);
+    private int maxAttempts = 1_000_000;
+
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public NoGuess() {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    public NoGuess(ExecutorService executor, int parallelism) {
+        this.executor = executor;
+        this.parallelism = Math.max(parallelism, 1);
+    }
+
+    public NoGuess setTimeout(long timeout, TimeUnit unit) {
+        this.timeout = unit.toNanos(timeout);
+        return this;
+    }
+
+    public NoGuess setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * @return seed of a board cleared by deduction alone, or {@code seed} itself when none was found
+     */
+    public long search(Minesweeper game, int rows, int cols, long seed) {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger(parallelism);
+        long deadline = nanoTime() + timeout;
+
+        for (int i = 0; i < parallelism; i++) {
+            executor.execute(() -> {
+                Minesweeper candidate = game.blank();
+                Solver solver = new Solver(candidate);
+                try {
+                    for (int n; !result.isDone() && (n = next.getAndIncrement()) < maxAttempts; ) {
+                        if (deadline - nanoTime() < 0) {
+                            break;
+                        }
+                        long s = seed + n * GAMMA;
+                        candidate.restart();
+                        candidate.start(rows, cols, s);
+                        solver.solve();
+                        attempts.incrementAndGet();
+                        // The solver never guesses, so the game can only be over once it is cleared.
+                        if (candidate.isOver()) {
+                            result.complete(s);
+                        }
+                    }
+                } finally {
+                    if (running.decrementAndGet() == 0) {
+                        result.complete(null);
+                    }
+                }
+            });
+        }
+
+        Long found;
+        try {
+            found = result.get(Math.max(deadline - nanoTime(), 0L), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            result.complete(null);
+            found = result.getNow(null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.complete(null);
+            found = result.getNow(null);
+        } catch (ExecutionException e) {
+            found = null;
+        }
+
+        if (found == null) {
+            failures.incrementAndGet();
+            return seed;
+        }
+        accepted.incrementAndGet();
+        return found;
+    }
+
+    public long getAttempts() {
+        return attempts.get();
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public double getAttemptsPerBoard() {
+        long boards = accepted.get();
+        return boards == 0 ? 0d : (double) attempts.get() / boards;
+    }
+
+}
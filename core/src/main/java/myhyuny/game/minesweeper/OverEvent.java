@@ -0,0 +1,23 @@
+package myhyuny.game.minesweeper;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Game cleared or lost.
+ *
+ * @author Hyunmin Kang
+ */
+@Name("myhyuny.minesweeper.Over")
+@Label("Game Over")
+final class OverEvent extends GameEvent {
+
+    @Label("Cleared")
+    boolean clear;
+
+    @Label("Played")
+    @Timespan
+    long played;
+
+}
@@ -0,0 +1,383 @@
+package myhyuny.game.minesweeper;
+
+import static java.lang.Math.exp;
+import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Exact mine probability of every square from what a player sees. A flagged square is taken as a mine.
+ * <p>
+ * Covered squares next to an opened number (the frontier) are split into components that share no number. Each
+ * component is enumerated on its own, on the fork-join pool, into the number of its solutions per mine count. The
+ * components are then weighted together with the squares off the frontier by the mines left on the board. A
+ * component's enumeration is kept until one of its squares or numbers changes.
+ *
+ * @author Hyunmin Kang
+ */
+public final class Probability {
+
+    private final Minesweeper game;
+    private final ForkJoinPool pool;
+    private final int width;
+    private final int height;
+
+    private Map<Key, Component> cache = new HashMap<>();
+    private long hits = 0;
+    private long misses = 0;
+
+    public Probability(Minesweeper game) {
+        this(game, ForkJoinPool.commonPool());
+    }
+
+    public Probability(Minesweeper game, ForkJoinPool pool) {
+        this.game = game;
+        this.pool = pool;
+        this.width = game.getWidth();
+        this.height = game.getHeight();
+    }
+
+    /**
+     * @return mine probability of every square by {@code rows * width + cols}: 0 when opened, 1 when flagged and
+     * {@code NaN} for every covered square when the visible numbers cannot be satisfied.
+     */
+    public double[] compute() {
+        int area = width * height;
+        double[] probabilities = new double[area];
+
+        int[] variables = new int[area];
+        Arrays.fill(variables, -1);
+        List<Integer> frontier = new ArrayList<>();
+        List<int[]> constraints = new ArrayList<>();
+        int[] around = new int[Topology.MAX_NEIGHBORS];
+        int flags = 0, covered = 0;
+
+        for (int i = 0; i < area; i++) {
+            byte state = game.getState(i / width, i % width);
+            if (!Cell.isOpened(state)) {
+                if (Cell.getFlag(state) == Cell.FLAG_UP) {
+                    probabilities[i] = 1d;
+                    flags++;
+                } else {
+                    covered++;
+                }
+                continue;
+            }
+            if (!Cell.isNearby(state)) {
+                continue;
+            }
+
+            int[] constraint = new int[Topology.MAX_NEIGHBORS + 1];
+            int size = 1;
+            int remains = Cell.getNearby(state);
+            for (int n = 0, count = game.neighbors(i, around); n < count; n++) {
+                int index = around[n];
+                byte neighbor = game.getState(index / width, index % width);
+                if (Cell.isOpened(neighbor)) {
+                    continue;
+                }
+                if (Cell.getFlag(neighbor) == Cell.FLAG_UP) {
+                    remains--;
+                    continue;
+                }
+                if (variables[index] < 0) {
+                    variables[index] = frontier.size();
+                    frontier.add(index);
+                }
+                constraint[size++] = variables[index];
+            }
+            if (size > 1) {
+                constraint[0] = remains;
+                constraints.add(Arrays.copyOf(constraint, size));
+            }
+        }
+
+        int[] parents = new int[frontier.size()];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+        }
+        for (int[] constraint : constraints) {
+            for (int i = 2; i < constraint.length; i++) {
+                parents[find(parents, constraint[i])] = find(parents, constraint[1]);
+            }
+        }
+
+        Map<Integer, List<int[]>> groups = new HashMap<>();
+        for (int[] constraint : constraints) {
+            groups.computeIfAbsent(find(parents, constraint[1]), k -> new ArrayList<>()).add(constraint);
+        }
+
+        Map<Key, Component> components = new HashMap<>();
+        List<Key> keys = new ArrayList<>();
+        List<ForkJoinTask<Component>> tasks = new ArrayList<>();
+        for (List<int[]> group : groups.values()) {
+            Key key = new Key(group, frontier);
+            Component component = cache.get(key);
+            if (component != null) {
+                hits++;
+                components.put(key, component);
+            } else {
+                misses++;
+                keys.add(key);
+                tasks.add(pool.submit(() -> Component.enumerate(key)));
+            }
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            components.put(keys.get(i), tasks.get(i).join());
+        }
+        cache = components;
+
+        int mines = game.getMines() - flags;
+        int interior = covered - frontier.size();
+        double rest = combine(new ArrayList<>(components.values()), mines, interior, probabilities);
+
+        for (int i = 0; i < area; i++) {
+            byte state = game.getState(i / width, i % width);
+            if (Cell.isOpened(state) || Cell.getFlag(state) == Cell.FLAG_UP) {
+                continue;
+            }
+            if (variables[i] < 0 || Double.isNaN(rest)) {
+                probabilities[i] = rest;
+            }
+        }
+        return probabilities;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    private static int find(int[] parents, int i) {
+        while (parents[i] != i) {
+            i = parents[i] = parents[parents[i]];
+        }
+        return i;
+    }
+
+    /**
+     * Writes the probability of every frontier square into {@code probabilities}.
+     *
+     * @return probability of a square off the frontier, or {@code NaN} when nothing satisfies the numbers
+     */
+    private static double combine(List<Component> components, int mines, int interior, double[] probabilities) {
+        int count = components.size();
+        double[][] prefix = new double[count + 1][];
+        double[][] suffix = new double[count + 1][];
+        prefix[0] = new double[]{1d};
+        suffix[count] = new double[]{1d};
+        for (int i = 0; i < count; i++) {
+            prefix[i + 1] = convolve(prefix[i], components.get(i).solutions);
+        }
+        for (int i = count - 1; 0 <= i; i--) {
+            suffix[i] = convolve(components.get(i).solutions, suffix[i + 1]);
+        }
+
+        double[] weights = weights(mines, interior, prefix[count].length);
+        double total = 0d, expected = 0d;
+        for (int k = 0; k < prefix[count].length; k++) {
+            double weight = prefix[count][k] * weights[k];
+            total += weight;
+            expected += weight * (mines - k);
+        }
+
+        if (total == 0d) {
+            return Double.NaN;
+        }
+
+        for (int c = 0; c < count; c++) {
+            Component component = components.get(c);
+            double[] others = convolve(prefix[c], suffix[c + 1]);
+            for (int k = 0; k < component.solutions.length; k++) {
+                double weight = 0d;
+                for (int o = 0; o < others.length; o++) {
+                    weight += others[o] * weights[k + o];
+                }
+                for (int v = 0; v < component.squares.length; v++) {
+                    probabilities[component.squares[v]] += component.mines[k][v] * weight / total;
+                }
+            }
+        }
+        return interior > 0 ? expected / total / interior : 0d;
+    }
+
+    /**
+     * Ways to place the rest of the mines off the frontier, C(interior, mines - k) for every k mines on the frontier,
+     * scaled so the largest is 1.
+     */
+    private static double[] weights(int mines, int interior, int length) {
+        double[] logs = new double[length];
+        double largest = Double.NEGATIVE_INFINITY;
+        for (int k = 0; k < length; k++) {
+            int rest = mines - k;
+            if (rest < 0 || interior < rest) {
+                logs[k] = Double.NEGATIVE_INFINITY;
+                continue;
+            }
+            logs[k] = logChoose(interior, rest);
+            largest = max(largest, logs[k]);
+        }
+        double[] weights = new double[length];
+        for (int k = 0; k < length; k++) {
+            weights[k] = logs[k] == Double.NEGATIVE_INFINITY ? 0d : exp(logs[k] - largest);
+        }
+        return weights;
+    }
+
+    private static double logChoose(int n, int r) {
+        double sum = 0d;
+        for (int i = 1, m = min(r, n - r); i <= m; i++) {
+            sum += log(n - m + i) - log(i);
+        }
+        return sum;
+    }
+
+    private static double[] convolve(double[] a, double[] b) {
+        double[] c = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0d) {
+                continue;
+            }
+            for (int j = 0; j < b.length; j++) {
+                c[i + j] += a[i] * b[j];
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Squares and numbers of a component, in board terms so that it matches across calls.
+     */
+    private static final class Key {
+        final int[] squares;
+        final int[][] constraints;
+        final int hash;
+
+        Key(List<int[]> group, List<Integer> frontier) {
+            int[] variables = group.stream().flatMapToInt(c -> Arrays.stream(c, 1, c.length)).distinct().sorted()
+                .toArray();
+            squares = new int[variables.length];
+            for (int i = 0; i < variables.length; i++) {
+                squares[i] = frontier.get(variables[i]);
+            }
+            constraints = new int[group.size()][];
+            for (int i = 0; i < constraints.length; i++) {
+                int[] constraint = group.get(i).clone();
+                for (int j = 1; j < constraint.length; j++) {
+                    constraint[j] = Arrays.binarySearch(variables, constraint[j]);
+                }
+                constraints[i] = constraint;
+            }
+            Arrays.sort(constraints, Arrays::compare);
+            hash = 31 * Arrays.hashCode(squares) + Arrays.deepHashCode(constraints);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash && Arrays.equals(squares, key.squares)
+                && Arrays.deepEquals(constraints, key.constraints);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Solutions of a component by mine count, and how many of them put a mine on each of its squares.
+     */
+    private static final class Component {
+        final int[] squares;
+        final double[] solutions;
+        final double[][] mines;
+
+        private final int[][] constraints;
+        private final int[][] owners;
+        private final int[] placed;
+        private final int[] unknown;
+        private final boolean[] assigned;
+
+        private Component(Key key) {
+            int size = key.squares.length;
+            squares = key.squares;
+            solutions = new double[size + 1];
+            mines = new double[size + 1][size];
+            constraints = key.constraints;
+            placed = new int[constraints.length];
+            unknown = new int[constraints.length];
+            assigned = new boolean[size];
+
+            int[] counts = new int[size];
+            for (int[] constraint : constraints) {
+                for (int j = 1; j < constraint.length; j++) {
+                    counts[constraint[j]]++;
+                }
+            }
+            owners = new int[size][];
+            for (int v = 0; v < size; v++) {
+                owners[v] = new int[counts[v]];
+            }
+            for (int c = 0; c < constraints.length; c++) {
+                unknown[c] = constraints[c].length - 1;
+                for (int j = 1; j < constraints[c].length; j++) {
+                    int v = constraints[c][j];
+                    owners[v][--counts[v]] = c;
+                }
+            }
+        }
+
+        static Component enumerate(Key key) {
+            Component component = new Component(key);
+            component.search(0, 0);
+            return component;
+        }
+
+        private void search(int v, int count) {
+            if (v == squares.length) {
+                solutions[count]++;
+                for (int i = 0; i < squares.length; i++) {
+                    if (assigned[i]) {
+                        mines[count][i]++;
+                    }
+                }
+                return;
+            }
+
+            for (int mine = 0; mine < 2; mine++) {
+                boolean valid = true;
+                for (int c : owners[v]) {
+                    unknown[c]--;
+                    placed[c] += mine;
+                    int remains = constraints[c][0];
+                    valid &= placed[c] <= remains && remains <= placed[c] + unknown[c];
+                }
+                if (valid) {
+                    assigned[v] = mine == 1;
+                    search(v + 1, count + mine);
+                    assigned[v] = false;
+                }
+                for (int c : owners[v]) {
+                    unknown[c]++;
+                    placed[c] -= mine;
+                }
+            }
+        }
+    }
+
+}
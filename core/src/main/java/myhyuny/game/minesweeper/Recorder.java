@@ -0,0 +1,64 @@
+package myhyuny.game.minesweeper;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Appends every game of the games it records to a log file, to be played back by {@link Replay}. A game is written
+ * once it is over or restarted, so games recorded from several threads never interleave.
+ *
+ * @author Hyunmin Kang
+ */
+public final class Recorder implements Closeable {
+
+    private final FileChannel channel;
+
+    private long games = 0;
+    private long bytes = 0;
+
+    public Recorder(Path path) throws IOException {
+        this.channel = FileChannel.open(path, CREATE, WRITE, APPEND);
+    }
+
+    /**
+     * Records the games of {@code game} from its next start on.
+     */
+    public Minesweeper record(Minesweeper game) {
+        return game.setRecording(new Recording(this));
+    }
+
+    synchronized void append(byte[] buffer, int size) {
+        try {
+            ByteBuffer source = ByteBuffer.wrap(buffer, 0, size);
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        games++;
+        bytes += size;
+    }
+
+    public synchronized long getGames() {
+        return games;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+}
@@ -0,0 +1,97 @@
+package myhyuny.game.minesweeper;
+
+import static java.lang.System.nanoTime;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * One game being recorded, kept in memory until it ends and then appended to the log at once.
+ * <p>
+ * A game is written as the varints width, height and mines, a byte with the ordinal of its {@link Topology} above a
+ * low bit set for a huge board, the seed as 8 bytes and the varint index of the first square selected. Every action
+ * then follows as the varint {@code index << 2 | action} and the varint nanoseconds since the previous one, and the
+ * varint {@link #END} closes the game.
+ *
+ * @author Hyunmin Kang
+ */
+final class Recording {
+
+    static final int SELECT = 0;
+    static final int FLAG = 1;
+    static final int EXPLORE = 2;
+    static final int END = 3;
+
+    private final Recorder recorder;
+
+    private byte[] buffer = new byte[256];
+    private int size = 0;
+    private long last;
+    private boolean recording = false;
+
+    Recording(Recorder recorder) {
+        this.recorder = recorder;
+    }
+
+    void start(Minesweeper game, int index) {
+        size = 0;
+        write(game.getWidth());
+        write(game.getHeight());
+        write(game.getMines());
+        ensure(9);
+        buffer[size++] = (byte) (game.getTopology().ordinal() << 1 | (game.isHuge() ? 1 : 0));
+        long seed = game.getSeed();
+        for (int shift = 56; 0 <= shift; shift -= 8) {
+            buffer[size++] = (byte) (seed >>> shift);
+        }
+        write(index);
+        last = nanoTime();
+        recording = true;
+    }
+
+    void action(int action, int index) {
+        if (!recording) {
+            return;
+        }
+        long now = nanoTime();
+        write((long) index << 2 | action);
+        write(now - last);
+        last = now;
+    }
+
+    void end() {
+        if (!recording) {
+            return;
+        }
+        write(END);
+        recording = false;
+        recorder.append(buffer, size);
+    }
+
+    private void write(long value) {
+        ensure(10);
+        while ((value & ~0x7fL) != 0) {
+            buffer[size++] = (byte) (value & 0x7f | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void ensure(int length) {
+        if (buffer.length < size + length) {
+            buffer = Arrays.copyOf(buffer, buffer.length << 1);
+        }
+    }
+
+    static long read(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package myhyuny.game.minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * Every square changed by a single action, as indices of {@code rows * width + cols}. The same instance is reused for
+ * every action, so it is only valid while the listener runs.
+ *
+ * @author Hyunmin Kang
+ */
+public final class Region {
+
+    private int[] opened = new int[64];
+    private int[] exploded = new int[16];
+    private int[] flagged = new int[4];
+    private int[] closed = new int[4];
+    private int openedCount = 0;
+    private int explodedCount = 0;
+    private int flaggedCount = 0;
+    private int closedCount = 0;
+
+    Region() {
+    }
+
+    public int getOpenedCount() {
+        return openedCount;
+    }
+
+    public int getOpened(int i) {
+        return opened[i];
+    }
+
+    public int getExplodedCount() {
+        return explodedCount;
+    }
+
+    public int getExploded(int i) {
+        return exploded[i];
+    }
+
+    public int getFlaggedCount() {
+        return flaggedCount;
+    }
+
+    public int getFlagged(int i) {
+        return flagged[i];
+    }
+
+    /**
+     * @return squares covered again by an undo
+     */
+    public int getClosedCount() {
+        return closedCount;
+    }
+
+    public int getClosed(int i) {
+        return closed[i];
+    }
+
+    public boolean isEmpty() {
+        return openedCount == 0 && explodedCount == 0 && flaggedCount == 0 && closedCount == 0;
+    }
+
+    void addOpened(int index) {
+        if (openedCount == opened.length) {
+            opened = Arrays.copyOf(opened, openedCount << 1);
+        }
+        opened[openedCount++] = index;
+    }
+
+    void addExploded(int index) {
+        if (explodedCount == exploded.length) {
+            exploded = Arrays.copyOf(exploded, explodedCount << 1);
+        }
+        exploded[explodedCount++] = index;
+    }
+
+    void addFlagged(int index) {
+        if (flaggedCount == flagged.length) {
+            flagged = Arrays.copyOf(flagged, flaggedCount << 1);
+        }
+        flagged[flaggedCount++] = index;
+    }
+
+    void addClosed(int index) {
+        if (closedCount == closed.length) {
+            closed = Arrays.copyOf(closed, closedCount << 1);
+        }
+        closed[closedCount++] = index;
+    }
+
+    void clear() {
+        openedCount = 0;
+        explodedCount = 0;
+        flaggedCount = 0;
+        closedCount = 0;
+    }
+
+}
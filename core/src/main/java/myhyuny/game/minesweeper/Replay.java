@@ -0,0 +1,113 @@
+package myhyuny.game.minesweeper;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Plays the games of a log written by {@link Recorder} back on headless games, memory mapping the log. A game of the
+ * same size as the previous one is played on the same instance.
+ *
+ * @author Hyunmin Kang
+ */
+public final class Replay {
+
+    private static final LocationConsumer NONE = (c, r) -> {};
+
+    private final ByteBuffer buffer;
+    private Minesweeper game = null;
+    private long games = 0;
+    private long actions = 0;
+
+    public Replay(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            if (Integer.MAX_VALUE < channel.size()) {
+                throw new IOException("Replay log over 2 GB: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    public boolean hasNext() {
+        return buffer.hasRemaining();
+    }
+
+    /**
+     * Plays the next game as fast as possible.
+     *
+     * @return the game, as the last action left it; valid until the next game is played
+     */
+    public Minesweeper next() {
+        return next(false);
+    }
+
+    /**
+     * @param realTime waits between actions as long as the player did
+     */
+    public Minesweeper next(boolean realTime) {
+        int width = (int) Recording.read(buffer);
+        int height = (int) Recording.read(buffer);
+        int mines = (int) Recording.read(buffer);
+        int kind = buffer.get();
+        boolean huge = (kind & 1) != 0;
+        Topology topology = Topology.values()[kind >>> 1];
+        long seed = buffer.getLong();
+        int start = (int) Recording.read(buffer);
+
+        if (game == null || game.getWidth() != width || game.getHeight() != height || game.getMines() != mines
+            || game.isHuge() != huge || game.getTopology() != topology)
+        {
+            game = huge
+                ? Minesweeper.huge(width, height, mines, 0L)
+                : new Minesweeper(width, height, mines, 0L, topology);
+        }
+        game.restart();
+        game.start(start / width, start % width, seed);
+
+        for (long code; (code = Recording.read(buffer)) != Recording.END; ) {
+            long delta = Recording.read(buffer);
+            if (realTime) {
+                LockSupport.parkNanos(delta);
+            }
+            int index = (int) (code >>> 2);
+            int rows = index / width, cols = index % width;
+            switch ((int) code & 3) {
+                case Recording.SELECT:
+                    game.select(rows, cols);
+                    break;
+                case Recording.FLAG:
+                    game.changeFlag(rows, cols);
+                    break;
+                case Recording.EXPLORE:
+                    game.exploreMine(rows, cols, NONE);
+                    break;
+            }
+            actions++;
+        }
+        games++;
+        return game;
+    }
+
+    /**
+     * Plays every game left as fast as possible, handing each one to {@code consumer} once played.
+     */
+    public void forEach(Consumer<Minesweeper> consumer) {
+        while (hasNext()) {
+            consumer.accept(next());
+        }
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getActions() {
+        return actions;
+    }
+
+}
@@ -0,0 +1,14 @@
+package myhyuny.game.minesweeper;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Game put back to its state before the first square selected.
+ *
+ * @author Hyunmin Kang
+ */
+@Name("myhyuny.minesweeper.Restart")
+@Label("Restart")
+final class RestartEvent extends GameEvent {
+}
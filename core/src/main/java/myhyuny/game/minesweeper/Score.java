@@ -0,0 +1,91 @@
+package myhyuny.game.minesweeper;
+
+import java.util.Comparator;
+
+/**
+ * A game cleared, as kept by {@link ScoreStore}.
+ *
+ * @author Hyunmin Kang
+ */
+public final class Score {
+
+    /**
+     * Faster first, then the harder board (higher 3BV), then the earlier.
+     */
+    static final Comparator<Score> ORDER = Comparator.comparingLong(Score::getMillis)
+        .thenComparing(Comparator.comparingInt(Score::getBoardValue).reversed())
+        .thenComparingLong(Score::getFinished);
+
+    private final String preset;
+    private final int width;
+    private final int height;
+    private final int mines;
+    private final long millis;
+    private final int boardValue;
+    private final long seed;
+    private final long finished;
+
+    public Score(String preset, int width, int height, int mines, long millis, int boardValue, long seed,
+                 long finished) {
+        this.preset = preset;
+        this.width = width;
+        this.height = height;
+        this.mines = mines;
+        this.millis = millis;
+        this.boardValue = boardValue;
+        this.seed = seed;
+        this.finished = finished;
+    }
+
+    /**
+     * Score of a game just cleared, finished now.
+     */
+    public static Score of(String preset, Minesweeper game) {
+        return new Score(preset, game.getWidth(), game.getHeight(), game.getMines(), game.getElapsed() / 1_000_000L,
+            game.getBoardValue(), game.getSeed(), System.currentTimeMillis());
+    }
+
+    public String getPreset() {
+        return preset;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getMines() {
+        return mines;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * @return 3BV of the board, see {@link Minesweeper#getBoardValue()}
+     */
+    public int getBoardValue() {
+        return boardValue;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return when the game was cleared, in milliseconds since the epoch
+     */
+    public long getFinished() {
+        return finished;
+    }
+
+    @Override
+    public String toString() {
+        return preset + ' ' + width + 'x' + height + '/' + mines + ' ' + millis + "ms 3BV " + boardValue;
+    }
+
+}
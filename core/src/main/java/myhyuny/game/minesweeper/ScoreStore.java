@@ -0,0 +1,282 @@
+package myhyuny.game.minesweeper;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Scores of games cleared, appended to a log file and indexed in memory by preset, best first, up to {@code keep} per
+ * preset. The indexes are rebuilt by streaming the log once when the store opens, so asking for the best scores never
+ * reads the file.
+ * <p>
+ * A score added is indexed at once and written with the others added within {@code delay}, in a single write and
+ * {@code force}, on a background thread; {@link #flush()} writes it right away. Each record carries a CRC32, so a
+ * record torn by a crash is dropped, with anything after it, when the store opens. Scores can no longer be added once
+ * the store is closed.
+ *
+ * @author Hyunmin Kang
+ */
+public final class ScoreStore implements Closeable {
+
+    private static final int MAGIC = 0x4d535343;
+    private static final int MAX_RECORD = 1 << 16;
+
+    private final FileChannel channel;
+    private final int keep;
+    private final long delay;
+    private final ScheduledExecutorService flusher;
+
+    private final Map<String, Score[]> boards = new HashMap<>();
+    private final Map<String, Integer> sizes = new HashMap<>();
+
+    private final Object writing = new Object();
+    private ByteBuffer pending = ByteBuffer.allocate(1024);
+    private ByteBuffer spare = ByteBuffer.allocate(1024);
+    private boolean scheduled = false;
+    private boolean closed = false;
+
+    private long scores = 0;
+    private long flushes = 0;
+
+    public ScoreStore(Path path) throws IOException {
+        this(path, 10, 100, TimeUnit.MILLISECONDS);
+    }
+
+    public ScoreStore(Path path, int keep, long delay, TimeUnit unit) throws IOException {
+        this.keep = Math.max(keep, 1);
+        this.delay = unit.toNanos(Math.max(delay, 0));
+        this.channel = FileChannel.open(path, CREATE, READ, WRITE);
+        try {
+            load();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "score-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Streams the log into the indexes and cuts off a torn tail.
+     */
+    private void load() throws IOException {
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(4).putInt(MAGIC).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+            return;
+        }
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0)),
+            1 << 16));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a score log");
+        }
+        long valid = 4;
+        byte[] record = new byte[256];
+        CRC32 crc = new CRC32();
+        try {
+            while (true) {
+                int length = in.readUnsignedShort();
+                if (record.length < length) {
+                    record = new byte[length];
+                }
+                in.readFully(record, 0, length);
+                int checksum = in.readInt();
+                crc.reset();
+                crc.update(record, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                index(decode(ByteBuffer.wrap(record, 0, length)));
+                scores++;
+                valid += 2 + length + 4;
+            }
+        } catch (EOFException e) {
+            // End of the log, or a record cut short.
+        }
+        if (valid < channel.size()) {
+            channel.truncate(valid);
+        }
+        channel.position(valid);
+    }
+
+    /**
+     * @throws IllegalStateException when the store is closed
+     */
+    public void add(Score score) {
+        byte[] preset = score.getPreset().getBytes(StandardCharsets.UTF_8);
+        int length = 2 + preset.length + 4 * 4 + 8 * 3;
+        if (MAX_RECORD <= length) {
+            throw new IllegalArgumentException("Preset name too long");
+        }
+        ByteBuffer record = ByteBuffer.allocate(2 + length + 4).putShort((short) length)
+            .putShort((short) preset.length).put(preset)
+            .putInt(score.getWidth()).putInt(score.getHeight()).putInt(score.getMines())
+            .putLong(score.getMillis()).putInt(score.getBoardValue()).putLong(score.getSeed())
+            .putLong(score.getFinished());
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 2, length);
+        record.putInt((int) crc.getValue()).flip();
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Score store closed");
+            }
+            scores++;
+            if (pending.remaining() < record.remaining()) {
+                pending = ByteBuffer.allocate(Math.max(pending.capacity() << 1, pending.position() + record.remaining()))
+                    .put(pending.flip());
+            }
+            pending.put(record);
+            if (!scheduled) {
+                scheduled = true;
+                flusher.schedule(this::flushQuietly, delay, TimeUnit.NANOSECONDS);
+            }
+        }
+        synchronized (boards) {
+            index(score);
+        }
+    }
+
+    private void index(Score score) {
+        String preset = score.getPreset();
+        Score[] board = boards.computeIfAbsent(preset, p -> new Score[keep]);
+        int size = sizes.getOrDefault(preset, 0);
+        int at = Arrays.binarySearch(board, 0, size, score, Score.ORDER);
+        at = at < 0 ? -at - 1 : at + 1;
+        if (keep <= at) {
+            return;
+        }
+        System.arraycopy(board, at, board, at + 1, Math.min(size, keep - 1) - at);
+        board[at] = score;
+        sizes.put(preset, Math.min(size + 1, keep));
+    }
+
+    private static Score decode(ByteBuffer record) {
+        byte[] preset = new byte[record.getShort() & 0xffff];
+        record.get(preset);
+        return new Score(new String(preset, StandardCharsets.UTF_8), record.getInt(), record.getInt(),
+            record.getInt(), record.getLong(), record.getInt(), record.getLong(), record.getLong());
+    }
+
+    /**
+     * @return up to {@code count} best scores of a preset, best first
+     */
+    public List<Score> top(String preset, int count) {
+        synchronized (boards) {
+            Score[] board = boards.get(preset);
+            if (board == null) {
+                return Collections.emptyList();
+            }
+            int size = Math.min(sizes.get(preset), Math.max(count, 0));
+            return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(board, size)));
+        }
+    }
+
+    /**
+     * @return best score of a preset, or {@code null} when there is none
+     */
+    public Score best(String preset) {
+        synchronized (boards) {
+            Score[] board = boards.get(preset);
+            return board == null ? null : board[0];
+        }
+    }
+
+    /**
+     * Writes and forces every score added so far. The scores are taken from {@code pending} and written outside the
+     * lock, so that adding a score never waits on the disk.
+     */
+    public void flush() throws IOException {
+        synchronized (writing) {
+            ByteBuffer batch;
+            synchronized (this) {
+                if (pending.position() == 0) {
+                    return;
+                }
+                batch = pending.flip();
+                pending = spare;
+            }
+            try {
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    // Back in front of the scores added since, to be written first.
+                    pending = ByteBuffer.allocate(Math.max(pending.capacity(), batch.remaining() + pending.position()))
+                        .put(batch).put(pending.flip());
+                    spare = batch.clear();
+                }
+                throw e;
+            }
+            channel.force(false);
+            synchronized (this) {
+                spare = batch.clear();
+                flushes++;
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        synchronized (this) {
+            scheduled = false;
+        }
+        try {
+            flush();
+        } catch (IOException e) {
+            // The scores stay pending for the next flush.
+        }
+    }
+
+    public synchronized long getScores() {
+        return scores;
+    }
+
+    /**
+     * @return batches written, each with a single {@code force}
+     */
+    public synchronized long getFlushes() {
+        return flushes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+        }
+        flusher.shutdown();
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package myhyuny.game.minesweeper;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * SplitMix64, the generator behind {@link java.util.SplittableRandom}, that can be seeded again, so that a board lays
+ * out every game with the same instance. Not thread-safe.
+ *
+ * @author Hyunmin Kang
+ */
+final class SeededRandom implements RandomGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    SeededRandom setSeed(long seed) {
+        state = seed;
+        return this;
+    }
+
+    @Override
+    public long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * @return the {@code i}th value of the generator seeded with {@code seed}, without seeding it
+     */
+    static long mix(long seed, int i) {
+        return mix(seed + (i + 1L) * GOLDEN_GAMMA);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ z >>> 30) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ z >>> 27) * 0x94d049bb133111ebL;
+        return z ^ z >>> 31;
+    }
+
+}
@@ -0,0 +1,334 @@
+package myhyuny.game.minesweeper;
+
+import static java.lang.System.nanoTime;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Games by session key, kept in memory within a budget of bytes. Once the games in memory take more than the budget,
+ * the least recently used ones are written to a {@link Snapshot} file each and dropped, down to seven eighths of the
+ * budget; the next action on such a session reads it back first. Games idle for a while can also be spilled ahead of
+ * time with {@link #evictIdle(long, TimeUnit)}.
+ * <p>
+ * A game read back is a new instance: {@code setup} is called on it, as on every game put in, to set its listeners
+ * again. Its undo history does not survive the trip to disk. Actions on the same session are serialized; actions on
+ * different sessions run in parallel.
+ *
+ * @author Hyunmin Kang
+ */
+public final class SessionManager<K> implements Closeable {
+
+    private final Path directory;
+    private final long budget;
+    private final BiConsumer<K, Minesweeper> setup;
+
+    private final Map<K, Entry> sessions = new ConcurrentHashMap<>();
+    private final Map<K, Entry> resident = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong reloadNanos = new AtomicLong();
+    private final AtomicLong maxReloadNanos = new AtomicLong();
+    private final AtomicLong spilledBytes = new AtomicLong();
+
+    private static final class Entry {
+        final long id;
+        final ReentrantLock lock = new ReentrantLock();
+        Minesweeper game;
+        long bytes = 0;
+        long spilled = 0;
+        volatile long access = nanoTime();
+        boolean removed = false;
+
+        Entry(long id, Minesweeper game) {
+            this.id = id;
+            this.game = game;
+        }
+    }
+
+    /**
+     * @param directory where games spilled are written, created if needed
+     * @param budget    bytes the games in memory may take
+     * @param setup     called on every game put in or read back, with its key
+     */
+    public SessionManager(Path directory, long budget, BiConsumer<K, Minesweeper> setup) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.budget = Math.max(budget, 0);
+        this.setup = setup;
+    }
+
+    /**
+     * Puts a game in under a key, replacing the session there.
+     */
+    public void put(K key, Minesweeper game) throws IOException {
+        remove(key);
+        setup.accept(key, game);
+
+        Entry entry = new Entry(ids.incrementAndGet(), game);
+        entry.lock.lock();
+        try {
+            sessions.put(key, entry);
+            synchronized (resident) {
+                resident.put(key, entry);
+            }
+            account(entry);
+        } finally {
+            entry.lock.unlock();
+        }
+        evict();
+    }
+
+    /**
+     * Runs an action on the game of a session, reading it back first if it was spilled.
+     *
+     * @return whether there is such a session
+     */
+    public boolean accept(K key, Consumer<Minesweeper> action) throws IOException {
+        return apply(key, game -> {
+            action.accept(game);
+            return Boolean.TRUE;
+        }) != null;
+    }
+
+    /**
+     * @return what the action returns, or {@code null} when there is no such session
+     */
+    public <R> R apply(K key, Function<Minesweeper, R> action) throws IOException {
+        Entry entry = sessions.get(key);
+        if (entry == null) {
+            return null;
+        }
+        R result;
+        entry.lock.lock();
+        try {
+            if (entry.removed) {
+                return null;
+            }
+            if (entry.game == null) {
+                reload(key, entry);
+            } else {
+                synchronized (resident) {
+                    resident.get(key);
+                }
+            }
+            entry.access = nanoTime();
+            result = action.apply(entry.game);
+            account(entry);
+        } finally {
+            entry.lock.unlock();
+        }
+        evict();
+        return result;
+    }
+
+    /**
+     * Drops a session, in memory or on disk.
+     *
+     * @return whether there was such a session
+     */
+    public boolean remove(K key) throws IOException {
+        Entry entry = sessions.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.lock.lock();
+        try {
+            entry.removed = true;
+            if (entry.game != null) {
+                synchronized (resident) {
+                    resident.remove(key, entry);
+                }
+                bytes.addAndGet(-entry.bytes);
+                entry.game = null;
+            } else {
+                spilledBytes.addAndGet(-entry.spilled);
+                Files.deleteIfExists(path(entry));
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Spills every game in memory not used for at least the given time, whatever the budget.
+     *
+     * @return games spilled
+     */
+    public int evictIdle(long idle, TimeUnit unit) throws IOException {
+        long before = nanoTime() - unit.toNanos(idle);
+        int spilled = 0;
+        for (Map.Entry<K, Entry> candidate : candidates()) {
+            Entry entry = candidate.getValue();
+            if (entry.access - before <= 0 && spill(candidate.getKey(), entry)) {
+                spilled++;
+            }
+        }
+        return spilled;
+    }
+
+    /**
+     * Spills the least recently used games until those in memory take no more than seven eighths of the budget. Only
+     * one thread evicts at a time; games in use are skipped.
+     */
+    private void evict() throws IOException {
+        if (bytes.get() <= budget || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long target = budget - (budget >>> 3);
+            for (Map.Entry<K, Entry> candidate : candidates()) {
+                if (bytes.get() <= target) {
+                    break;
+                }
+                spill(candidate.getKey(), candidate.getValue());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * @return games in memory, least recently used first
+     */
+    private List<Map.Entry<K, Entry>> candidates() {
+        synchronized (resident) {
+            return new ArrayList<>(resident.entrySet());
+        }
+    }
+
+    private boolean spill(K key, Entry entry) throws IOException {
+        if (!entry.lock.tryLock()) {
+            return false;
+        }
+        try {
+            if (entry.removed || entry.game == null) {
+                return false;
+            }
+            try (FileChannel channel = FileChannel.open(path(entry), CREATE, WRITE, TRUNCATE_EXISTING)) {
+                Snapshot.save(entry.game, channel);
+                entry.spilled = channel.size();
+            }
+            synchronized (resident) {
+                resident.remove(key, entry);
+            }
+            bytes.addAndGet(-entry.bytes);
+            spilledBytes.addAndGet(entry.spilled);
+            entry.bytes = 0;
+            entry.game = null;
+            evictions.incrementAndGet();
+            return true;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private void reload(K key, Entry entry) throws IOException {
+        long begin = nanoTime();
+        Path path = path(entry);
+        Minesweeper game;
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            game = Snapshot.restore(channel);
+        }
+        Files.delete(path);
+        setup.accept(key, game);
+
+        entry.game = game;
+        spilledBytes.addAndGet(-entry.spilled);
+        entry.spilled = 0;
+        synchronized (resident) {
+            resident.put(key, entry);
+        }
+
+        long nanos = nanoTime() - begin;
+        reloads.incrementAndGet();
+        reloadNanos.addAndGet(nanos);
+        maxReloadNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void account(Entry entry) {
+        long now = entry.game.getBytes();
+        bytes.addAndGet(now - entry.bytes);
+        entry.bytes = now;
+    }
+
+    private Path path(Entry entry) {
+        return directory.resolve("session-" + entry.id + ".snapshot");
+    }
+
+    /**
+     * Deletes every game spilled. Games in memory are dropped with the manager.
+     */
+    @Override
+    public void close() throws IOException {
+        for (K key : new ArrayList<>(sessions.keySet())) {
+            remove(key);
+        }
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    public int getSessions() {
+        return sessions.size();
+    }
+
+    public int getResident() {
+        synchronized (resident) {
+            return resident.size();
+        }
+    }
+
+    /**
+     * @return bytes taken by the games in memory, roughly
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public long getSpilledBytes() {
+        return spilledBytes.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getReloads() {
+        return reloads.get();
+    }
+
+    public long getAverageReloadNanos() {
+        long count = reloads.get();
+        return count == 0 ? 0 : reloadNanos.get() / count;
+    }
+
+    public long getMaxReloadNanos() {
+        return maxReloadNanos.get();
+    }
+
+}
@@ -0,0 +1,192 @@
+package myhyuny.game.minesweeper;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Saves a game in progress and restores it without playing its moves again.
+ * <p>
+ * A snapshot is a fixed header (size, mines, board kind and topology, seed, first square, flags left, elapsed time and
+ * whether the game started, is over and was cleared) followed, once started, by 4 bits per square: mine, opened and
+ * the flag in two bits, two squares a byte with the even index in the low bits. The mines are buried again from the
+ * seed; the mine bit of every opened or flagged square is checked against them.
+ *
+ * @author Hyunmin Kang
+ */
+public final class Snapshot {
+
+    private static final int MAGIC = 0x4d535331;
+    private static final int HEADER = 4 * 4 + 1 + 8 + 4 + 4 + 8;
+
+    private static final int HUGE = 0x1;
+    private static final int START = 0x2;
+    private static final int OVER = 0x4;
+    private static final int CLEAR = 0x8;
+    private static final int TOPOLOGY_SHIFT = 4;
+
+    private static final int MINE = 0x1;
+    private static final int OPENED = 0x2;
+    private static final int FLAG_SHIFT = 2;
+
+    private Snapshot() {
+    }
+
+    public static byte[] save(Minesweeper game) {
+        return encode(game).array();
+    }
+
+    public static void save(Minesweeper game, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = encode(game);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public static Minesweeper restore(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < HEADER) {
+            throw new EOFException("Snapshot header truncated");
+        }
+        if (bytes.length < HEADER + body(buffer)) {
+            throw new EOFException("Snapshot truncated");
+        }
+        return decode(buffer);
+    }
+
+    public static Minesweeper restore(ReadableByteChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        read(channel, header);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + body(header));
+        buffer.put(header.flip());
+        read(channel, buffer);
+        return decode(buffer.flip());
+    }
+
+    private static void read(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Snapshot truncated");
+            }
+        }
+    }
+
+    /**
+     * Checks the header before anything is allocated for what follows it.
+     *
+     * @return length of the squares following the header
+     */
+    private static int body(ByteBuffer header) throws IOException {
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not a snapshot");
+        }
+        int width = header.getInt(4), height = header.getInt(8);
+        if (width < Minesweeper.MIN_WIDTH || Minesweeper.MAX_HUGE_WIDTH < width
+            || height < Minesweeper.MIN_HEIGHT || Minesweeper.MAX_HUGE_HEIGHT < height)
+        {
+            throw new IOException("Snapshot of an unsupported size: " + width + "x" + height);
+        }
+        return (header.get(16) & START) != 0 ? squares(width, height) : 0;
+    }
+
+    private static int squares(int width, int height) {
+        return (int) (((long) width * height + 1) >>> 1);
+    }
+
+    private static ByteBuffer encode(Minesweeper game) {
+        int width = game.getWidth(), height = game.getHeight();
+        boolean start = game.isStart();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + (start ? squares(width, height) : 0));
+        buffer.putInt(MAGIC)
+            .putInt(width)
+            .putInt(height)
+            .putInt(game.getMines())
+            .put((byte) ((game.isHuge() ? HUGE : 0) | (start ? START : 0) | (game.isOver() ? OVER : 0)
+                | (game.isClear() ? CLEAR : 0) | game.getTopology().ordinal() << TOPOLOGY_SHIFT))
+            .putLong(game.getSeed())
+            .putInt(game.getFirst())
+            .putInt(game.getFlag())
+            .putLong(game.getElapsed());
+
+        if (start) {
+            Board board = game.getBoard();
+            board.forEachMine(i -> put(buffer, i, MINE));
+            board.forEachTouched(i -> {
+                byte state = board.get(i);
+                put(buffer, i, (Cell.isOpened(state) ? OPENED : 0) | Cell.getFlag(state) << FLAG_SHIFT);
+            });
+        }
+        return buffer.rewind();
+    }
+
+    private static void put(ByteBuffer buffer, int index, int bits) {
+        int i = HEADER + (index >>> 1);
+        buffer.put(i, (byte) (buffer.get(i) | bits << ((index & 1) << 2)));
+    }
+
+    private static Minesweeper decode(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a snapshot");
+        }
+        int width = buffer.getInt(), height = buffer.getInt(), mines = buffer.getInt();
+        int flags = buffer.get();
+        long seed = buffer.getLong();
+        int first = buffer.getInt();
+        int flag = buffer.getInt();
+        long elapsed = buffer.getLong();
+
+        Topology[] topologies = Topology.values();
+        int topology = (flags & 0xff) >>> TOPOLOGY_SHIFT;
+        if (topologies.length <= topology) {
+            throw new IOException("Snapshot of an unknown topology: " + topology);
+        }
+        // The seed only lays out the mines of a started game again: the games after it take fresh seeds.
+        Minesweeper game = (flags & HUGE) != 0
+            ? Minesweeper.huge(width, height, mines)
+            : new Minesweeper(width, height, mines, topologies[topology]);
+        if (game.getWidth() != width || game.getHeight() != height || game.getMines() != mines
+            || game.getTopology() != topologies[topology])
+        {
+            throw new IOException("Snapshot of an unsupported board: " + width + "x" + height + ", " + mines + ", "
+                + topologies[topology]);
+        }
+        if ((flags & START) == 0) {
+            return game;
+        }
+
+        int area = width * height;
+        int opened = 0;
+        for (int i = HEADER, end = HEADER + squares(width, height); i < end; i++) {
+            opened += Integer.bitCount(buffer.get(i) & (OPENED | OPENED << 4));
+        }
+        game.resume(seed, first, area - opened, flag, (flags & OVER) != 0, (flags & CLEAR) != 0,
+            elapsed);
+
+        // Flags go first so that a chunk of a huge board compacted by its last opened square stays compacted.
+        Board board = game.getBoard();
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < area; i++) {
+                int pair = buffer.get(HEADER + (i >>> 1));
+                if ((i & 1) == 0 && (pair & ~(MINE | MINE << 4)) == 0) {
+                    i++;
+                    continue;
+                }
+                int bits = pair >>> ((i & 1) << 2) & 0xf;
+                if ((bits & ~MINE) == 0 || ((bits & OPENED) != 0) != (pass == 1)) {
+                    continue;
+                }
+                byte state = board.get(i);
+                if (Cell.isMine(state) != ((bits & MINE) != 0)) {
+                    throw new IOException("Snapshot does not match the mines of its seed at " + i);
+                }
+                state = Cell.setFlag(state, bits >>> FLAG_SHIFT);
+                board.set(i, (bits & OPENED) != 0 ? Cell.setOpened(state) : state);
+            }
+        }
+        return game;
+    }
+
+}
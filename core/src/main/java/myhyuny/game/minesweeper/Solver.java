@@ -0,0 +1,273 @@
+package myhyuny.game.minesweeper;
+
+import static java.lang.System.nanoTime;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Plays every certain move of a game by deduction only, looking at nothing but what a player sees: opened squares,
+ * their numbers and flags. A flagged covered square is taken as a mine.
+ * <p>
+ * Each opened number is checked alone (all its covered neighbors are mines, or all are safe) and in pairs with the
+ * numbers around it (what the difference of two neighborhoods must hold). Only numbers whose neighborhood changed since
+ * they were last checked are checked again. The solver takes over the region listener of the game to learn about
+ * those changes. Neighborhoods follow the {@link Topology} of the game.
+ *
+ * @author Hyunmin Kang
+ */
+public final class Solver {
+
+    private static final int NONE = -2;
+
+    private final Minesweeper game;
+    private final Board board;
+    private final int width;
+    private final int height;
+
+    private final Topology topology;
+    private final int[] around = new int[Topology.MAX_NEIGHBORS];
+    private final int[] excluded = new int[Topology.MAX_NEIGHBORS];
+    private final int[] touched = new int[Topology.MAX_NEIGHBORS + 1];
+    private final int[] candidates = new int[Topology.MAX_REACH];
+
+    private final BitSet queued = new BitSet();
+    private int[] queue = new int[64];
+    private int size = 0;
+
+    private long moves = 0;
+    private long nanos = 0;
+
+    public Solver(Minesweeper game) {
+        this.game = game;
+        this.board = game.getBoard();
+        this.topology = game.getTopology();
+        this.width = game.getWidth();
+        this.height = game.getHeight();
+        game.setRegionListener(region -> {
+            for (int i = 0; i < region.getOpenedCount(); i++) {
+                changed(region.getOpened(i));
+            }
+            for (int i = 0; i < region.getFlaggedCount(); i++) {
+                changed(region.getFlagged(i));
+            }
+            for (int i = 0; i < region.getClosedCount(); i++) {
+                changed(region.getClosed(i));
+            }
+        });
+
+        if (game.isStart()) {
+            // Only the squares touched, so that a huge board is not laid out all over.
+            board.forEachTouched(i -> {
+                if (Cell.isOpened(state(i))) {
+                    enqueue(i);
+                }
+            });
+        }
+    }
+
+    /**
+     * Plays certain moves until there is none left or the game is over.
+     *
+     * @return moves played
+     */
+    public int solve() {
+        long begin = nanoTime();
+        long before = moves;
+        boolean played;
+        do {
+            played = step();
+        } while (played);
+        nanos += nanoTime() - begin;
+        return (int) (moves - before);
+    }
+
+    /**
+     * Checks changed numbers until one of them yields moves.
+     *
+     * @return whether any move was played
+     */
+    public boolean step() {
+        while (size > 0 && !game.isOver()) {
+            int index = queue[--size];
+            queued.clear(index);
+            if (deduce(index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getMovesPerSecond() {
+        return nanos == 0 ? 0d : moves * 1e9d / nanos;
+    }
+
+    private void changed(int index) {
+        for (int n = 0, count = closed(index, touched); n < count; n++) {
+            if (Cell.isOpened(state(touched[n]))) {
+                enqueue(touched[n]);
+            }
+        }
+    }
+
+    private void enqueue(int index) {
+        if (queued.get(index)) {
+            return;
+        }
+        queued.set(index);
+        if (size == queue.length) {
+            queue = Arrays.copyOf(queue, size << 1);
+        }
+        queue[size++] = index;
+    }
+
+    private byte state(int index) {
+        return board.get(index);
+    }
+
+    /**
+     * Writes a square and the squares around it in increasing order, which on a rectangular board is row by row.
+     *
+     * @return how many were written
+     */
+    private int closed(int index, int[] into) {
+        int count = game.neighbors(index, into), at = count;
+        while (0 < at && index < into[at - 1]) {
+            into[at] = into[at - 1];
+            at--;
+        }
+        into[at] = index;
+        return count + 1;
+    }
+
+    private static boolean contains(int[] squares, int count, int index) {
+        for (int n = 0; n < count; n++) {
+            if (squares[n] == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isCovered(byte state) {
+        return !Cell.isOpened(state) && Cell.getFlag(state) != Cell.FLAG_UP;
+    }
+
+    /**
+     * Mines still missing around an opened number, or -1 when the square holds no number.
+     */
+    private int remains(int index) {
+        byte state = state(index);
+        if (!Cell.isOpened(state) || !Cell.isNearby(state)) {
+            return -1;
+        }
+        // A flag left by a cascade on an opened square is not a mine.
+        int remains = Cell.getNearby(state);
+        for (int n = 0, count = board.neighbors(index, around); n < count; n++) {
+            byte other = state(around[n]);
+            if (!Cell.isOpened(other) && Cell.getFlag(other) == Cell.FLAG_UP) {
+                remains--;
+            }
+        }
+        return remains;
+    }
+
+    private int covered(int index) {
+        int covered = 0;
+        for (int n = 0, count = board.neighbors(index, around); n < count; n++) {
+            if (isCovered(state(around[n]))) {
+                covered++;
+            }
+        }
+        return covered;
+    }
+
+    private boolean deduce(int index) {
+        int remains = remains(index);
+        if (remains < 0) {
+            return false;
+        }
+        int covered = covered(index);
+        if (covered == 0) {
+            return false;
+        }
+        if (remains == 0) {
+            return play(index, NONE, false);
+        }
+        if (remains == covered) {
+            return play(index, NONE, true);
+        }
+
+        int count = topology.reach(index / width, index % width, width, height, candidates);
+        for (int k = 0; k < count; k++) {
+            int other = candidates[k];
+            int otherRemains = remains(other);
+            if (otherRemains < 0) {
+                continue;
+            }
+
+            int shared = shared(index, other);
+            if (shared == 0) {
+                continue;
+            }
+            int only = covered(other) - shared;
+            int mine = otherRemains - remains;
+            if (mine == only && 0 < only + covered - shared) {
+                // Every mine of this number sits in the shared squares, so the other number's own squares are
+                // all mines and this number's own squares are all safe.
+                boolean played = play(other, index, true);
+                return play(index, other, false) || played;
+            }
+            // The same the other way around, as the other number is not checked again unless it changes.
+            if (-mine == covered - shared && 0 < only + covered - shared) {
+                boolean played = play(index, other, true);
+                return play(other, index, false) || played;
+            }
+        }
+        return false;
+    }
+
+    private int shared(int index, int other) {
+        int shared = 0, others = board.neighbors(other, excluded);
+        for (int n = 0, count = board.neighbors(index, around); n < count; n++) {
+            if (isCovered(state(around[n])) && (around[n] == other || contains(excluded, others, around[n]))) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Selects, or flags, every covered square of a number that is not also a square of the excluded one.
+     */
+    private boolean play(int index, int exclude, boolean mine) {
+        boolean played = false;
+        int excludes = exclude == NONE ? 0 : board.neighbors(exclude, excluded);
+        for (int n = 0, count = board.neighbors(index, around); n < count; n++) {
+            int i = around[n];
+            if (!isCovered(state(i)) || i == exclude || contains(excluded, excludes, i)) {
+                continue;
+            }
+            int rows = i / width, cols = i % width;
+            if (mine) {
+                while (!game.isOver() && Cell.getFlag(state(i)) != Cell.FLAG_UP) {
+                    game.changeFlag(rows, cols);
+                }
+            } else {
+                game.select(rows, cols);
+            }
+            moves++;
+            played = true;
+        }
+        return played;
+    }
+
+}
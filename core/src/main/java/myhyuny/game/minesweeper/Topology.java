@@ -0,0 +1,173 @@
+package myhyuny.game.minesweeper;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Which squares are around a square: the ones its number counts the mines of, a chord opens and a cascade spreads
+ * to. The squares around are given in increasing order of index.
+ *
+ * @author Hyunmin Kang
+ */
+public enum Topology {
+
+    /**
+     * The 8 squares around, within the board.
+     */
+    RECTANGULAR(false, new int[]{-1, -1, -1, 0, -1, 1, 0, -1, 0, 1, 1, -1, 1, 0, 1, 1}),
+
+    /**
+     * The 8 squares around, the edges wrapping over to the other side.
+     */
+    TOROIDAL(true, new int[]{-1, -1, -1, 0, -1, 1, 0, -1, 0, 1, 1, -1, 1, 0, 1, 1}),
+
+    /**
+     * The 6 squares around on a hexagonal grid whose odd rows are shifted right by half a square.
+     */
+    HEXAGONAL(false, new int[]{-1, -1, -1, 0, 0, -1, 0, 1, 1, -1, 1, 0},
+        new int[]{-1, 0, -1, 1, 0, -1, 0, 1, 1, 0, 1, 1}),
+
+    /**
+     * The 8 squares a knight's move away, within the board.
+     */
+    KNIGHT(false, new int[]{-2, -1, -2, 1, -1, -2, -1, 2, 1, -2, 1, 2, 2, -1, 2, 1});
+
+    /**
+     * Most squares around a square of any topology.
+     */
+    static final int MAX_NEIGHBORS = 8;
+
+    /**
+     * Most squares within two steps of a square of any topology.
+     */
+    static final int MAX_REACH = MAX_NEIGHBORS * (MAX_NEIGHBORS + 1);
+
+    /**
+     * Largest board, in squares, given a table of the squares around: the largest {@link Minesweeper} board.
+     */
+    static final int MAX_TABLE_AREA = Minesweeper.MAX_WIDTH * Minesweeper.MAX_HEIGHT;
+
+    /**
+     * Most tables kept for boards of other sizes, the least recently used dropped first.
+     */
+    private static final int MAX_TABLES = 16;
+
+    private final boolean wrap;
+    private final int[] even;
+    private final int[] odd;
+    private final int[] evenReach;
+    private final int[] oddReach;
+    private final Map<Long, Neighbors> tables = new LinkedHashMap<>(MAX_TABLES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Neighbors> eldest) {
+            return MAX_TABLES < size();
+        }
+    };
+
+    Topology(boolean wrap, int[] moves) {
+        this(wrap, moves, moves);
+    }
+
+    /**
+     * @param even rows and columns to the squares around a square of an even row, in pairs
+     * @param odd  the same for a square of an odd row
+     */
+    Topology(boolean wrap, int[] even, int[] odd) {
+        this.wrap = wrap;
+        this.even = even;
+        this.odd = odd;
+        this.evenReach = reach(even, odd, 0);
+        this.oddReach = reach(even, odd, 1);
+    }
+
+    /**
+     * Moves of one or two steps from a square of a row of the parity, itself excluded, each once, row by row.
+     */
+    private static int[] reach(int[] even, int[] odd, int parity) {
+        Set<List<Integer>> moves = new TreeSet<>(Comparator.<List<Integer>>comparingInt(move -> move.get(0))
+            .thenComparingInt(move -> move.get(1)));
+        int[] first = parity == 0 ? even : odd;
+        for (int n = 0; n < first.length; n += 2) {
+            moves.add(Arrays.asList(first[n], first[n + 1]));
+            int[] second = (parity + first[n] & 1) == 0 ? even : odd;
+            for (int m = 0; m < second.length; m += 2) {
+                int y = first[n] + second[m], x = first[n + 1] + second[m + 1];
+                if (y != 0 || x != 0) {
+                    moves.add(Arrays.asList(y, x));
+                }
+            }
+        }
+        int[] reach = new int[moves.size() << 1];
+        int n = 0;
+        for (List<Integer> move : moves) {
+            reach[n++] = move.get(0);
+            reach[n++] = move.get(1);
+        }
+        return reach;
+    }
+
+    /**
+     * Writes the indexes of the squares around a square, itself excluded, in increasing order.
+     *
+     * @param into at least {@link #MAX_NEIGHBORS} long
+     * @return how many were written
+     */
+    int neighbors(int rows, int cols, int width, int height, int[] into) {
+        return moves((rows & 1) == 0 ? even : odd, rows, cols, width, height, into);
+    }
+
+    /**
+     * Writes the indexes of the squares one or two steps away from a square, itself excluded, in increasing order:
+     * every square whose squares around may overlap its own, and possibly a few more.
+     *
+     * @param into at least {@link #MAX_REACH} long
+     * @return how many were written
+     */
+    int reach(int rows, int cols, int width, int height, int[] into) {
+        return moves((rows & 1) == 0 ? evenReach : oddReach, rows, cols, width, height, into);
+    }
+
+    private int moves(int[] moves, int rows, int cols, int width, int height, int[] into) {
+        int count = 0;
+        for (int n = 0; n < moves.length; n += 2) {
+            int y = rows + moves[n], x = cols + moves[n + 1];
+            if (wrap) {
+                y = (y + height) % height;
+                x = (x + width) % width;
+            } else if (y < 0 || height <= y || x < 0 || width <= x) {
+                continue;
+            }
+            into[count++] = y * width + x;
+        }
+        if (wrap) {
+            // Wrapped squares of the first and last rows and columns come out of order.
+            for (int i = 1; i < count; i++) {
+                for (int j = i; 0 < j && into[j] < into[j - 1]; j--) {
+                    int swap = into[j];
+                    into[j] = into[j - 1];
+                    into[j - 1] = swap;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return squares around every square of a board of the size, built on first use and shared while it is among the
+     * most recently used, or {@code null} for a board larger than {@link #MAX_TABLE_AREA}
+     */
+    Neighbors table(int width, int height) {
+        if (MAX_TABLE_AREA < (long) width * height) {
+            return null;
+        }
+        synchronized (tables) {
+            return tables.computeIfAbsent((long) width << 32 | height, key -> new Neighbors(this, width, height));
+        }
+    }
+
+}
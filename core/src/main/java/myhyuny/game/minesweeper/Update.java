@@ -0,0 +1,232 @@
+package myhyuny.game.minesweeper;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Squares of a game changed by one action, restart, undo or redo, and how the game stands after it, as published by
+ * an {@link EventStream}. It is encoded once and the same bytes are handed to every subscriber:
+ * <pre>
+ * long  sequence
+ * int   width, height
+ * byte  kind (bit 0-2), start (bit 3), over (bit 4), clear (bit 5), topology (bit 6-7)
+ * int   flags left
+ * int   count
+ * count * (int index, byte state)
+ * </pre>
+ * A state is packed as a {@link Cell} is, showing only what a player sees: the flag of a covered square, plus its mine
+ * once the game is lost, and the nearby count and mine of an opened one. When a square comes more than once, the last
+ * one counts.
+ *
+ * @author Hyunmin Kang
+ */
+public final class Update {
+
+    public enum Kind {
+        /**
+         * Every square that is not plain covered: whatever came before is replaced, not changed.
+         */
+        KEYFRAME,
+        ACTION,
+        RESTART,
+        UNDO,
+        REDO
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final Topology[] TOPOLOGIES = Topology.values();
+
+    private static final int KIND = 0x07;
+    private static final int START = 0x08;
+    private static final int OVER = 0x10;
+    private static final int CLEAR = 0x20;
+    private static final int TOPOLOGY_SHIFT = 6;
+
+    private static final int STATUS = 16;
+    private static final int FLAG = 17;
+    private static final int COUNT = 21;
+    private static final int HEADER = 25;
+    private static final int SQUARE = 5;
+
+    private final ByteBuffer bytes;
+
+    private Update(ByteBuffer bytes) {
+        this.bytes = bytes.asReadOnlyBuffer();
+    }
+
+    /**
+     * @return the squares of {@code region} as they are now on the board of the game
+     */
+    static Update of(long sequence, Kind kind, Minesweeper game, Region region) {
+        int count = region.getOpenedCount() + region.getExplodedCount() + region.getFlaggedCount()
+            + region.getClosedCount();
+        ByteBuffer bytes = header(sequence, kind, game, count);
+        Board board = game.getBoard();
+        for (int i = 0; i < region.getClosedCount(); i++) {
+            put(bytes, region.getClosed(i), board.get(region.getClosed(i)), false);
+        }
+        for (int i = 0; i < region.getFlaggedCount(); i++) {
+            put(bytes, region.getFlagged(i), board.get(region.getFlagged(i)), false);
+        }
+        for (int i = 0; i < region.getOpenedCount(); i++) {
+            put(bytes, region.getOpened(i), board.get(region.getOpened(i)), false);
+        }
+        // Last, so that a mine flagged within the action that lost the game shows.
+        for (int i = 0; i < region.getExplodedCount(); i++) {
+            put(bytes, region.getExploded(i), board.get(region.getExploded(i)), true);
+        }
+        return new Update(bytes.flip());
+    }
+
+    /**
+     * @return every square touched so far, and every mine when the game was lost
+     */
+    static Update keyframe(long sequence, Minesweeper game) {
+        Board board = game.getBoard();
+        Map<Integer, Byte> squares = new LinkedHashMap<>();
+        board.forEachTouched(i -> squares.put(i, shown(board.get(i), false)));
+        if (game.isOver() && !game.isClear()) {
+            board.forEachMine(i -> squares.put(i, shown(board.get(i), true)));
+        }
+        ByteBuffer bytes = header(sequence, Kind.KEYFRAME, game, squares.size());
+        squares.forEach((index, state) -> bytes.putInt(index).put(state));
+        return new Update(bytes.flip());
+    }
+
+    /**
+     * @param squares states of the squares as of {@code last}, none of them plain covered
+     * @return keyframe of the game as it stands after {@code last}
+     */
+    static Update keyframe(Update last, Map<Integer, Byte> squares) {
+        ByteBuffer bytes = header(last, Kind.KEYFRAME, squares.size());
+        squares.forEach((index, state) -> bytes.putInt(index).put(state));
+        return new Update(bytes.flip());
+    }
+
+    /**
+     * @return single update doing what the updates do one after another, each square once
+     */
+    static Update merge(List<Update> updates) {
+        Map<Integer, Byte> squares = new LinkedHashMap<>();
+        boolean keyframe = false;
+        for (Update update : updates) {
+            if (update.getKind() == Kind.KEYFRAME) {
+                squares.clear();
+                keyframe = true;
+            }
+            for (int i = 0; i < update.getCount(); i++) {
+                squares.put(update.getIndex(i), update.getState(i));
+            }
+        }
+        Update last = updates.get(updates.size() - 1);
+        if (keyframe) {
+            squares.values().removeIf(state -> state == 0);
+        }
+        ByteBuffer bytes = header(last, keyframe ? Kind.KEYFRAME : last.getKind(), squares.size());
+        squares.forEach((index, state) -> bytes.putInt(index).put(state));
+        return new Update(bytes.flip());
+    }
+
+    private static ByteBuffer header(long sequence, Kind kind, Minesweeper game, int count) {
+        int status = kind.ordinal() | game.getTopology().ordinal() << TOPOLOGY_SHIFT;
+        if (game.isStart()) {
+            status |= START;
+        }
+        if (game.isOver()) {
+            status |= OVER;
+        }
+        if (game.isClear()) {
+            status |= CLEAR;
+        }
+        return ByteBuffer.allocate(HEADER + count * SQUARE)
+            .putLong(sequence).putInt(game.getWidth()).putInt(game.getHeight())
+            .put((byte) status).putInt(game.getFlag()).putInt(count);
+    }
+
+    private static ByteBuffer header(Update last, Kind kind, int count) {
+        ByteBuffer bytes = ByteBuffer.allocate(HEADER + count * SQUARE).put(last.bytes.duplicate().limit(HEADER));
+        return bytes.put(STATUS, (byte) (last.bytes.get(STATUS) & ~KIND | kind.ordinal())).putInt(COUNT, count);
+    }
+
+    private static void put(ByteBuffer bytes, int index, byte state, boolean exploded) {
+        bytes.putInt(index).put(shown(state, exploded));
+    }
+
+    private static byte shown(byte state, boolean exploded) {
+        if (Cell.isOpened(state)) {
+            return (byte) (state & ~Cell.FLAG);
+        }
+        return (byte) (state & (exploded ? Cell.MINE | Cell.FLAG : Cell.FLAG));
+    }
+
+    /**
+     * @return increasing by one for every update published, a keyframe taking the number of the last one it holds
+     */
+    public long getSequence() {
+        return bytes.getLong(0);
+    }
+
+    public int getWidth() {
+        return bytes.getInt(8);
+    }
+
+    public int getHeight() {
+        return bytes.getInt(12);
+    }
+
+    public Kind getKind() {
+        return KINDS[bytes.get(STATUS) & KIND];
+    }
+
+    public Topology getTopology() {
+        return TOPOLOGIES[(bytes.get(STATUS) & 0xff) >>> TOPOLOGY_SHIFT];
+    }
+
+    public boolean isStart() {
+        return (bytes.get(STATUS) & START) != 0;
+    }
+
+    public boolean isOver() {
+        return (bytes.get(STATUS) & OVER) != 0;
+    }
+
+    public boolean isClear() {
+        return (bytes.get(STATUS) & CLEAR) != 0;
+    }
+
+    /**
+     * @return flags left, as {@link Minesweeper#getFlag()}
+     */
+    public int getFlag() {
+        return bytes.getInt(FLAG);
+    }
+
+    public int getCount() {
+        return bytes.getInt(COUNT);
+    }
+
+    /**
+     * @return index of the square, as {@code rows * width + cols}
+     */
+    public int getIndex(int i) {
+        return bytes.getInt(HEADER + i * SQUARE);
+    }
+
+    public Cell getCell(int i) {
+        return new Cell(getState(i));
+    }
+
+    byte getState(int i) {
+        return bytes.get(HEADER + i * SQUARE + 4);
+    }
+
+    /**
+     * @return the encoded update, shared with every other subscriber and read-only
+     */
+    public ByteBuffer getBytes() {
+        return bytes.duplicate();
+    }
+
+}
@@ -0,0 +1,198 @@
+package myhyuny.game.minesweeper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Players racing on overlapping cascades of a {@link ConcurrentMinesweeper}. Every player selects the same empty
+ * squares in its own order, which must open what one player selecting them alone opens; then every player selects
+ * every safe square, which must open each of them exactly once and clear the game exactly once. Players selecting
+ * numbers while another flags them must leave every number either opened or flagged, never opened under a flag.
+ *
+ * @author Hyunmin Kang
+ */
+final class ConcurrentCascades {
+
+    private static final int PLAYERS = 4;
+
+    private ConcurrentCascades() {
+    }
+
+    static void run() throws Exception {
+        for (long seed = 0; seed < 200; seed++) {
+            race(30, 16, 48, seed, true);
+        }
+        for (long seed = 0; seed < 10; seed++) {
+            race(256, 256, 256 * 256 / 10, seed, false);
+        }
+        for (long seed = 0; seed < 200; seed++) {
+            flags(30, 16, 99, seed);
+        }
+        System.out.println("Concurrent cascades: ok");
+    }
+
+    /**
+     * @param single whether the board is small enough to play single-threaded on {@link Minesweeper} as well
+     */
+    private static void race(int width, int height, int mines, long seed, boolean single) throws Exception {
+        int rows = height / 2, cols = width / 2;
+        ConcurrentMinesweeper reference = new ConcurrentMinesweeper(width, height, mines);
+        reference.start(rows, cols, seed);
+
+        List<Integer> empty = new ArrayList<>(), safe = new ArrayList<>();
+        for (int i = 0; i < width * height; i++) {
+            Cell cell = reference.getCell(i / width, i % width);
+            if (!cell.isMine()) {
+                safe.add(i);
+                if (cell.isEmpty() && !cell.isOpened()) {
+                    empty.add(i);
+                }
+            }
+        }
+        Random random = new Random(seed);
+        Collections.shuffle(empty, random);
+        empty = empty.subList(0, empty.size() / 4);
+        for (int i : empty) {
+            reference.select(i / width, i % width);
+        }
+
+        if (single) {
+            Minesweeper game = new Minesweeper(width, height, mines, seed);
+            game.start(rows, cols, seed);
+            for (int i : empty) {
+                game.select(i / width, i % width);
+            }
+            for (int i = 0; i < width * height; i++) {
+                Stress.check(game.getCell(i / width, i % width).isOpened()
+                        == reference.getCell(i / width, i % width).isOpened(),
+                    "Seed " + seed + ": square " + i + " opened differently from a single-threaded game");
+            }
+        }
+
+        ConcurrentMinesweeper game = new ConcurrentMinesweeper(width, height, mines);
+        AtomicInteger claimed = new AtomicInteger(), overs = new AtomicInteger();
+        game.setOpenedListener((r, c, cell) -> claimed.incrementAndGet());
+        game.setOverListener(clear -> overs.incrementAndGet());
+        game.start(rows, cols, seed);
+        int first = claimed.get();
+
+        AtomicInteger opened = new AtomicInteger();
+        play(game, empty, random, opened);
+        for (int i = 0; i < width * height; i++) {
+            Stress.check(game.getCell(i / width, i % width).isOpened()
+                    == reference.getCell(i / width, i % width).isOpened(),
+                "Seed " + seed + ": square " + i + " opened differently by racing players");
+        }
+        Stress.check(first + opened.get() == claimed.get(),
+            "Seed " + seed + ": " + claimed.get() + " squares opened, " + (first + opened.get()) + " counted");
+        Stress.check(overs.get() == 0, "Seed " + seed + ": game over before every safe square is opened");
+
+        play(game, safe, random, opened);
+        Stress.check(claimed.get() == safe.size() && first + opened.get() == safe.size(),
+            "Seed " + seed + ": " + claimed.get() + " squares opened, " + (first + opened.get()) + " counted, of "
+                + safe.size());
+        Stress.check(overs.get() == 1 && game.isClear(),
+            "Seed " + seed + ": game over " + overs.get() + " times, cleared " + game.isClear());
+    }
+
+    /**
+     * One player flags every covered number while the others select them, all of them let go at once.
+     */
+    private static void flags(int width, int height, int mines, long seed) throws Exception {
+        ConcurrentMinesweeper game = new ConcurrentMinesweeper(width, height, mines);
+        game.start(height / 2, width / 2, seed);
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < width * height; i++) {
+            Cell cell = game.getCell(i / width, i % width);
+            if (!cell.isMine() && !cell.isOpened() && cell.isNearby()) {
+                numbers.add(i);
+            }
+        }
+        Random random = new Random(seed);
+        Collections.shuffle(numbers, random);
+
+        CyclicBarrier barrier = new CyclicBarrier(PLAYERS);
+        Thread[] players = new Thread[PLAYERS];
+        Throwable[] failure = new Throwable[1];
+        for (int p = 0; p < PLAYERS; p++) {
+            List<Integer> order = p == 0 ? numbers : new ArrayList<>(numbers);
+            if (p != 0) {
+                Collections.shuffle(order, random);
+            }
+            boolean flagger = p == 0;
+            players[p] = new Thread(() -> {
+                try {
+                    barrier.await();
+                    for (int i : order) {
+                        if (flagger) {
+                            game.changeFlag(i / width, i % width);
+                        } else {
+                            game.select(i / width, i % width);
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failure) {
+                        failure[0] = e;
+                    }
+                }
+            });
+            players[p].start();
+        }
+        for (Thread player : players) {
+            player.join();
+        }
+        if (failure[0] != null) {
+            throw new IllegalStateException(failure[0]);
+        }
+
+        int flagged = 0;
+        for (int i : numbers) {
+            Cell cell = game.getCell(i / width, i % width);
+            Stress.check(!cell.isOpened() || cell.getFlag() == Cell.FLAG_NONE,
+                "Seed " + seed + ": square " + i + " opened under a flag");
+            flagged += cell.isOpened() ? 0 : 1;
+        }
+        Stress.check(game.getFlag() == mines - flagged,
+            "Seed " + seed + ": " + game.getFlag() + " flags left, " + (mines - flagged) + " expected");
+        Stress.check(!game.isOver(), "Seed " + seed + ": game over with only numbers selected");
+    }
+
+    /**
+     * Every player selects every square in its own order, all of them let go at once.
+     */
+    private static void play(ConcurrentMinesweeper game, List<Integer> squares, Random random, AtomicInteger opened)
+        throws Exception
+    {
+        CyclicBarrier barrier = new CyclicBarrier(PLAYERS);
+        Thread[] players = new Thread[PLAYERS];
+        Throwable[] failure = new Throwable[1];
+        for (int p = 0; p < PLAYERS; p++) {
+            List<Integer> order = new ArrayList<>(squares);
+            Collections.shuffle(order, random);
+            players[p] = new Thread(() -> {
+                try {
+                    barrier.await();
+                    for (int i : order) {
+                        opened.addAndGet(game.select(i / game.getWidth(), i % game.getWidth()));
+                    }
+                } catch (Throwable e) {
+                    synchronized (failure) {
+                        failure[0] = e;
+                    }
+                }
+            });
+            players[p].start();
+        }
+        for (Thread player : players) {
+            player.join();
+        }
+        if (failure[0] != null) {
+            throw new IllegalStateException(failure[0]);
+        }
+    }
+
+}
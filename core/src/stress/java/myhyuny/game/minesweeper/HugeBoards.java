@@ -0,0 +1,73 @@
+package myhyuny.game.minesweeper;
+
+import java.util.Random;
+
+/**
+ * Boards too large for a table of the squares around: a cooperative board of more than {@code 1 << 28} squares, whose
+ * table would not even fit an int array, and array boards of every topology past {@link Topology#MAX_TABLE_AREA}.
+ *
+ * @author Hyunmin Kang
+ */
+final class HugeBoards {
+
+    private HugeBoards() {
+    }
+
+    static void run() {
+        cooperative();
+        for (Topology topology : Topology.values()) {
+            array(topology);
+        }
+        System.out.println("Huge boards: ok");
+    }
+
+    private static void cooperative() {
+        int width = 1 << 14, height = (1 << 14) + 16;
+        ConcurrentMinesweeper game = new ConcurrentMinesweeper(width, height, width * height / 6);
+        Stress.check(game.start(height / 2, width / 2, 1L), "Cooperative game did not start");
+        Stress.check(game.getCell(height / 2, width / 2).isOpened(), "First square not opened");
+
+        Random random = new Random(2L);
+        for (int n = 0; n < 10000; n++) {
+            int rows = random.nextInt(height), cols = random.nextInt(width), mines = 0;
+            for (int y = Math.max(rows - 1, 0); y < Math.min(rows + 2, height); y++) {
+                for (int x = Math.max(cols - 1, 0); x < Math.min(cols + 2, width); x++) {
+                    mines += game.getCell(y, x).isMine() ? 1 : 0;
+                }
+            }
+            Stress.check(game.getCell(rows, cols).getNearby() == mines,
+                "Square " + rows + ", " + cols + " counts " + game.getCell(rows, cols).getNearby() + " mines, not "
+                    + mines);
+        }
+    }
+
+    /**
+     * Counts of mines and flags around every square against the squares around as the topology gives them.
+     */
+    private static void array(Topology topology) {
+        int width = 120, height = 80;
+        Stress.check(Topology.MAX_TABLE_AREA < width * height, "Board small enough for a table");
+        ArrayBoard board = new ArrayBoard(width, height, topology);
+        board.buried(0, width * height / 5, 3L);
+
+        Random random = new Random(4L);
+        for (int n = 0; n < 2000; n++) {
+            int index = random.nextInt(width * height);
+            board.set(index, (byte) (board.get(index) ^ Cell.FLAG_UP << Cell.FLAG_SHIFT));
+        }
+
+        int[] around = new int[Topology.MAX_NEIGHBORS];
+        for (int i = 0; i < width * height; i++) {
+            int count = topology.neighbors(i / width, i % width, width, height, around);
+            int mines = Cell.isMine(board.get(i)) ? 1 : 0, flags = Cell.isFlagUp(board.get(i)) ? 1 : 0;
+            for (int n = 0; n < count; n++) {
+                mines += Cell.isMine(board.get(around[n])) ? 1 : 0;
+                flags += Cell.isFlagUp(board.get(around[n])) ? 1 : 0;
+            }
+            Stress.check(Cell.getNearby(board.get(i)) == mines && board.getFlagsAround(i) == flags,
+                topology + " square " + i + " counts " + Cell.getNearby(board.get(i)) + " mines and "
+                    + board.getFlagsAround(i) + " flags, not " + mines + " and " + flags);
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package myhyuny.game.minesweeper;
+
+/**
+ * Runs every stress check, failing with the first one that finds a difference. Run with {@code gradle :core:stress},
+ * which {@code gradle check} depends on.
+ *
+ * @author Hyunmin Kang
+ */
+public final class Stress {
+
+    private Stress() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        HugeBoards.run();
+        ConcurrentCascades.run();
+    }
+
+    static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+}
@@ -1,4 +1,4 @@
-package myhyuny.game.minesweeper;
+package myhyuny.game.minesweeper.desktop;
 
 import static java.awt.EventQueue.invokeLater;
 import static java.awt.event.KeyEvent.KEY_PRESSED;
@@ -10,14 +10,11 @@ import static java.lang.Math.min;
 import static java.lang.System.currentTimeMillis;
 import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 
-import javax.swing.JButton;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
-import javax.swing.border.BevelBorder;
 import java.awt.AWTEvent;
 import java.awt.BorderLayout;
 import java.awt.Button;
-import java.awt.Color;
 import java.awt.Component;
 import java.awt.Frame;
 import java.awt.GridLayout;
@@ -31,10 +28,20 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
+import myhyuny.game.minesweeper.BoardPool;
+import myhyuny.game.minesweeper.Cell;
+import myhyuny.game.minesweeper.Minesweeper;
+import myhyuny.game.minesweeper.Score;
+import myhyuny.game.minesweeper.ScoreStore;
+
 /**
  * @author Hyunmin Kang
  */
@@ -47,14 +54,6 @@ public final class Application extends Panel { // Applet {
     private static final byte BUTTON_MIDDLE = 0x1 << 1;
     private static final byte BUTTON_RIGHT = 0x1 << 2;
 
-    private static final Color[] NUMBER_COLORS = {
-        Color.BLUE, new Color(0x008000), Color.RED, new Color(0x000080), new Color(0x800000),
-        new Color(0x008080), Color.BLACK, Color.GRAY
-    };
-
-    private static final BevelBorder RAISED_BUTTON = new BevelBorder(BevelBorder.RAISED);
-    private static final BevelBorder LOWERED_BUTTON = new BevelBorder(BevelBorder.LOWERED);
-
     public static final boolean isMac;
     private static final boolean isWin;
     static {
@@ -65,6 +64,10 @@ public final class Application extends Panel { // Applet {
 
     private static final ScheduledExecutorService schedule = newSingleThreadScheduledExecutor();
 
+    private static final BoardPool pool = new BoardPool();
+
+    static final ScoreStore scores = openScores();
+
     private final Application self = this;
 
     private final int width;
@@ -74,8 +77,7 @@ public final class Application extends Panel { // Applet {
     private final Label minesLabel = new Label();
     private final Label timerLabel = new Label("0");
     private final Label messageLabel = new Label("https://github.com/myhyuny/minesweeper");
-    private JButton[][] buttons;
-    private Panel centerPanel;
+    private BoardComponent board;
     private Frame frame;
 
     private ScheduledFuture<?> timer = null;
@@ -95,10 +97,12 @@ public final class Application extends Panel { // Applet {
     private boolean controlKey = false;
 
     public void init() {
-        minesweeper = new Minesweeper(width, height, mines);
+        minesweeper = new Minesweeper(width, height, mines).setBoardPool(pool).setUndoable(true).setMetered(true);
 
         Button restartButton = new Button("Restart");
-        buttons = new JButton[minesweeper.getHeight()][minesweeper.getWidth()];
+        board = new BoardComponent(minesweeper.getWidth(), minesweeper.getHeight());
+        // Keyboard focus for the undo and redo keys.
+        board.setFocusable(true);
 
         minesLabel.setText(String.valueOf(minesweeper.getMines()));
         minesLabel.setAlignment(Label.CENTER);
@@ -113,11 +117,14 @@ public final class Application extends Panel { // Applet {
         northPanel.add(new Panel(), BorderLayout.NORTH);
         northPanel.add(panel, BorderLayout.CENTER);
 
-        MouseAdapter buttonMouseHandler = new MouseAdapter() {
+        MouseAdapter boardMouseHandler = new MouseAdapter() {
             private byte pressed = BUTTON_NONE;
+            private int rows;
+            private int cols;
 
             @Override
             public void mousePressed(MouseEvent e) {
+                board.requestFocusInWindow();
                 switch (e.getButton()) {
                     case MouseEvent.BUTTON1:
                         pressed |= BUTTON_LEFT;
@@ -132,65 +139,66 @@ public final class Application extends Panel { // Applet {
                 if (controlKey) {
                     pressed |= BUTTON_RIGHT;
                 }
+                rows = board.rowsAt(e.getY());
+                cols = board.colsAt(e.getX());
 
                 switch (pressed) {
                     case BUTTON_MIDDLE:
                     case BUTTON_LEFT | BUTTON_RIGHT:
-                        CellButton b = (CellButton) e.getComponent();
-                        minesweeper.press(b.rows, b.cols, (y, x) -> buttons[y][x].setBorder(LOWERED_BUTTON));
+                        minesweeper.press(rows, cols, (y, x) -> board.press(y, x, true));
+                        board.flush();
                         break;
                 }
             }
 
             @Override
             public void mouseReleased(MouseEvent e) {
-                CellButton b = (CellButton) e.getComponent();
                 if (minesweeper.isStart()) {
                     switch (pressed) {
                         case BUTTON_LEFT:
-                            minesweeper.select(b.rows, b.cols);
+                            minesweeper.select(rows, cols);
                             break;
                         case BUTTON_RIGHT:
-                            minesweeper.changeFlag(b.rows, b.cols);
+                            minesweeper.changeFlag(rows, cols);
                             break;
                         case BUTTON_MIDDLE:
                         case BUTTON_LEFT | BUTTON_RIGHT:
-                            minesweeper.exploreMine(b.rows, b.cols, (y, x) -> buttons[y][x].setBorder(RAISED_BUTTON));
+                            minesweeper.exploreMine(rows, cols, (y, x) -> board.press(y, x, false));
+                            board.flush();
                             break;
                     }
                 } else if (pressed == BUTTON_LEFT) {
-                    minesweeper.start(b.rows, b.cols);
+                    minesweeper.start(rows, cols);
                 }
                 pressed = BUTTON_NONE;
             }
         };
 
-        centerPanel = new Panel(new GridLayout(minesweeper.getHeight(), minesweeper.getWidth()));
-        for (int y = 0; y < minesweeper.getHeight(); y++) {
-            for (int x = 0; x < minesweeper.getWidth(); x++) {
-                CellButton button = new CellButton(y, x);
-                button.addMouseListener(buttonMouseHandler);
-                button.setBorder(new BevelBorder(BevelBorder.RAISED));
-                buttons[y][x] = button;
-                centerPanel.add(button);
-            }
-        }
-
-        centerPanel.addKeyListener(new KeyAdapter() {
+        board.addMouseListener(boardMouseHandler);
+        board.addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-                System.out.println("keyPressed");
-            }
-
-            @Override
-            public void keyReleased(KeyEvent e) {
-                System.out.println("keyReleased");
+                if (!(isMac ? e.isMetaDown() : e.isControlDown())) {
+                    return;
+                }
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_Z:
+                        if (e.isShiftDown()) {
+                            minesweeper.redo();
+                        } else {
+                            minesweeper.undo();
+                        }
+                        break;
+                    case KeyEvent.VK_Y:
+                        minesweeper.redo();
+                        break;
+                }
             }
         });
 
         setLayout(new BorderLayout());
         add(northPanel, BorderLayout.NORTH);
-        add(centerPanel, BorderLayout.CENTER);
+        add(board, BorderLayout.CENTER);
         add(messageLabel, BorderLayout.SOUTH);
 
         restartButton.addMouseListener(new MouseAdapter() {
@@ -198,6 +206,7 @@ public final class Application extends Panel { // Applet {
             public void mouseClicked(MouseEvent e) {
                 if (minesweeper.isStart() || minesweeper.isOver()) {
                     minesweeper.restart();
+                    board.requestFocusInWindow();
                 } else if (frame != null) {
                     new NewGameDialog();
                     frame.setVisible(false);
@@ -225,7 +234,7 @@ public final class Application extends Panel { // Applet {
         minesweeper
             .setStartedListener(() -> {
                 messageLabel.setText("");
-                long startTime = currentTimeMillis();
+                long startTime = currentTimeMillis() - minesweeper.getElapsed() / 1_000_000L;
                 timer = schedule.scheduleAtFixedRate(() -> invokeLater(() ->
                     timerLabel.setText(Long.toString((currentTimeMillis() - startTime) / 1000L))
                 ), 0L, 1000L, TimeUnit.MILLISECONDS);
@@ -235,53 +244,65 @@ public final class Application extends Panel { // Applet {
                     timer.cancel(false);
                 }
             })
-            .setOverListener(clear -> messageLabel.setText(clear ? "Clear!" : "Game over"))
+            .setOverListener(clear -> {
+                if (!clear) {
+                    messageLabel.setText("Game over");
+                    return;
+                }
+                // A game cleared after taking moves back does not count.
+                if (scores == null || minesweeper.isUndone()) {
+                    messageLabel.setText("Clear!");
+                    return;
+                }
+                Score score = Score.of(NewGameDialog.preset(minesweeper), minesweeper);
+                scores.add(score);
+                messageLabel.setText(String.format(scores.best(score.getPreset()) == score
+                    ? "Clear! %.3fs, best time" : "Clear! %.3fs", score.getMillis() / 1000d));
+            })
             .setRestartListener(() -> {
                 minesLabel.setText(Integer.toString(minesweeper.getMines()));
                 timerLabel.setText("0");
                 messageLabel.setText("New game");
-                for (int y = 0; y < minesweeper.getHeight(); y++) {
-                    for (int x = 0; x < minesweeper.getWidth(); x++) {
-                        JButton button = buttons[y][x];
-                        button.setBorder(RAISED_BUTTON);
-                        button.setForeground(Color.BLACK);
-                        button.setText("");
-                    }
-                }
+                board.flush();
             })
             .setOpenedListener((rows, cols, cell) -> {
-                JButton button = buttons[rows][cols];
-                button.setBorder(LOWERED_BUTTON);
                 if (cell.isMine()) {
-                    button.setText("X");
+                    board.open(rows, cols, BoardComponent.GLYPH_MINE);
                 } else if (cell.isNearby()) {
-                    button.setText(String.valueOf(cell.getNearby()));
-                    button.setForeground(NUMBER_COLORS[cell.getNearby() - 1]);
+                    board.open(rows, cols, cell.getNearby());
+                } else {
+                    board.open(rows, cols, BoardComponent.GLYPH_NONE);
                 }
             })
-            .setExplodedListener((rows, cols) -> {
-                JButton button = buttons[rows][cols];
-                button.setBorder(LOWERED_BUTTON);
-                button.setForeground(Color.RED);
-                button.setText("*");
+            .setExplodedListener((rows, cols) -> board.open(rows, cols, BoardComponent.GLYPH_EXPLODED))
+            .setClosedListener((rows, cols, flag) -> {
+                switch (flag) {
+                    case Cell.FLAG_UP:
+                        board.close(rows, cols, BoardComponent.GLYPH_FLAG);
+                        break;
+                    case Cell.FLAG_QUESTION:
+                        board.close(rows, cols, BoardComponent.GLYPH_QUESTION);
+                        break;
+                    default:
+                        board.close(rows, cols, BoardComponent.GLYPH_NONE);
+                        break;
+                }
             })
             .setFlagListener((rows, cols, flag) -> {
-                JButton button = buttons[rows][cols];
                 switch (flag) {
                     case Cell.FLAG_NONE:
-                        button.setForeground(Color.RED);
-                        button.setText("▶");
+                        board.mark(rows, cols, BoardComponent.GLYPH_FLAG);
                         break;
                     case Cell.FLAG_UP:
-                        button.setForeground(Color.BLACK);
-                        button.setText("?");
+                        board.mark(rows, cols, BoardComponent.GLYPH_QUESTION);
                         break;
                     case Cell.FLAG_QUESTION:
-                        button.setText("");
+                        board.mark(rows, cols, BoardComponent.GLYPH_NONE);
                         break;
                 }
                 minesLabel.setText(Integer.toString(minesweeper.getFlag()));
-            });
+            })
+            .setRegionListener(region -> board.flush());
     }
 
     public void exit() {
@@ -298,6 +319,11 @@ public final class Application extends Panel { // Applet {
         init();
 
         frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                board.requestFocusInWindow();
+            }
+
             @Override
             public void windowClosing(WindowEvent e) {
                 exit();
@@ -316,7 +342,7 @@ public final class Application extends Panel { // Applet {
 
                 invokeLater(() -> {
                     frameWidth = c.getWidth() - self.getWidth();
-                    frameHeight = c.getHeight() - centerPanel.getHeight();
+                    frameHeight = c.getHeight() - board.getHeight();
 
                     resized(e, Application.CELL_SIZE);
 
@@ -329,8 +355,8 @@ public final class Application extends Panel { // Applet {
                 if (!initialized) {
                     return;
                 }
-                int width = centerPanel.getWidth() / minesweeper.getWidth();
-                int height = centerPanel.getHeight() / minesweeper.getHeight();
+                int width = board.getWidth() / minesweeper.getWidth();
+                int height = board.getHeight() / minesweeper.getHeight();
                 resized(e, max(Application.CELL_SIZE, min(width, height)));
             }
 
@@ -344,6 +370,27 @@ public final class Application extends Panel { // Applet {
         frame.setVisible(true);
     }
 
+    /**
+     * @return scores kept in the user's home, or {@code null} when they cannot be
+     */
+    private static ScoreStore openScores() {
+        try {
+            Path directory = Files.createDirectories(Paths.get(System.getProperty("user.home"), ".minesweeper"));
+            ScoreStore store = new ScoreStore(directory.resolve("scores.log"));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    System.err.println(e.getLocalizedMessage());
+                }
+            }, "score-store-close"));
+            return store;
+        } catch (IOException | SecurityException e) {
+            System.err.println(e.getLocalizedMessage());
+            return null;
+        }
+    }
+
     public static void main(String[] args) {
         try {
             if (isWin) {
@@ -0,0 +1,207 @@
+package myhyuny.game.minesweeper.desktop;
+
+import static java.awt.RenderingHints.KEY_TEXT_ANTIALIASING;
+import static java.awt.RenderingHints.VALUE_TEXT_ANTIALIAS_ON;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import javax.swing.JComponent;
+import javax.swing.UIManager;
+import javax.swing.border.BevelBorder;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+/**
+ * Whole board painted as a single component from pre-rendered tiles. Changes are collected into one dirty rectangle
+ * and repainted at once by {@link #flush()}.
+ *
+ * @author Hyunmin Kang
+ */
+final class BoardComponent extends JComponent {
+
+    static final byte GLYPH_NONE = 0;
+    static final byte GLYPH_FLAG = 9;
+    static final byte GLYPH_QUESTION = 10;
+    static final byte GLYPH_MINE = 11;
+    static final byte GLYPH_EXPLODED = 12;
+    private static final int GLYPHS = 13;
+
+    private static final int GLYPH = 0x0f;
+    private static final int LOWERED = 0x10;
+    private static final int PRESSED = 0x20;
+
+    private static final Color[] NUMBER_COLORS = {
+        Color.BLUE, new Color(0x008000), Color.RED, new Color(0x000080), new Color(0x800000),
+        new Color(0x008080), Color.BLACK, Color.GRAY
+    };
+
+    private static final BevelBorder RAISED_BUTTON = new BevelBorder(BevelBorder.RAISED);
+    private static final BevelBorder LOWERED_BUTTON = new BevelBorder(BevelBorder.LOWERED);
+
+    private final int columns;
+    private final int rows;
+    private final byte[] tiles;
+
+    private final BufferedImage[] images = new BufferedImage[GLYPHS << 1];
+    private int tileWidth = 0;
+    private int tileHeight = 0;
+
+    private int dirtyTop = Integer.MAX_VALUE;
+    private int dirtyLeft = Integer.MAX_VALUE;
+    private int dirtyBottom = -1;
+    private int dirtyRight = -1;
+
+    BoardComponent(int columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+        this.tiles = new byte[columns * rows];
+
+        Font font = UIManager.getFont("Button.font");
+        if (font != null) {
+            setFont(font);
+        }
+        Color background = UIManager.getColor("Button.background");
+        setBackground(background != null ? background : Color.LIGHT_GRAY);
+        setOpaque(true);
+        setPreferredSize(new Dimension(columns * Application.CELL_SIZE, rows * Application.CELL_SIZE));
+    }
+
+    int rowsAt(int y) {
+        return min(max(y / max(getHeight() / rows, 1), 0), rows - 1);
+    }
+
+    int colsAt(int x) {
+        return min(max(x / max(getWidth() / columns, 1), 0), columns - 1);
+    }
+
+    void open(int rows, int cols, byte glyph) {
+        tiles[rows * columns + cols] = (byte) (LOWERED | glyph);
+        dirty(rows, cols);
+    }
+
+    void close(int rows, int cols, byte glyph) {
+        tiles[rows * columns + cols] = glyph;
+        dirty(rows, cols);
+    }
+
+    void mark(int rows, int cols, byte glyph) {
+        int index = rows * columns + cols;
+        tiles[index] = (byte) (tiles[index] & ~GLYPH | glyph);
+        dirty(rows, cols);
+    }
+
+    void press(int rows, int cols, boolean pressed) {
+        int index = rows * columns + cols;
+        tiles[index] = (byte) (pressed ? tiles[index] | PRESSED : tiles[index] & ~PRESSED);
+        dirty(rows, cols);
+    }
+
+    private void dirty(int rows, int cols) {
+        dirtyTop = min(dirtyTop, rows);
+        dirtyLeft = min(dirtyLeft, cols);
+        dirtyBottom = max(dirtyBottom, rows);
+        dirtyRight = max(dirtyRight, cols);
+    }
+
+    void flush() {
+        if (dirtyBottom < 0) {
+            return;
+        }
+        int w = getWidth() / columns, h = getHeight() / rows;
+        repaint(dirtyLeft * w, dirtyTop * h, (dirtyRight - dirtyLeft + 1) * w, (dirtyBottom - dirtyTop + 1) * h);
+        dirtyTop = dirtyLeft = Integer.MAX_VALUE;
+        dirtyBottom = dirtyRight = -1;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int w = max(getWidth() / columns, 1), h = max(getHeight() / rows, 1);
+        if (w != tileWidth || h != tileHeight) {
+            tileWidth = w;
+            tileHeight = h;
+            for (int i = 0; i < images.length; i++) {
+                images[i] = null;
+            }
+        }
+
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+
+        Rectangle clip = g.getClipBounds();
+        int top = 0, left = 0, bottom = rows, right = columns;
+        if (clip != null) {
+            top = max(clip.y / h, 0);
+            left = max(clip.x / w, 0);
+            bottom = min((clip.y + clip.height + h - 1) / h, rows);
+            right = min((clip.x + clip.width + w - 1) / w, columns);
+        }
+
+        for (int y = top; y < bottom; y++) {
+            for (int x = left; x < right; x++) {
+                g.drawImage(image(tiles[y * columns + x]), x * w, y * h, null);
+            }
+        }
+    }
+
+    private BufferedImage image(byte tile) {
+        int lowered = (tile & (LOWERED | PRESSED)) != 0 ? 1 : 0;
+        int glyph = tile & GLYPH;
+        int i = lowered * GLYPHS + glyph;
+        if (images[i] == null) {
+            images[i] = render(lowered != 0, glyph);
+        }
+        return images[i];
+    }
+
+    private BufferedImage render(boolean lowered, int glyph) {
+        BufferedImage image = new BufferedImage(tileWidth, tileHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(getBackground());
+        g.fillRect(0, 0, tileWidth, tileHeight);
+        (lowered ? LOWERED_BUTTON : RAISED_BUTTON).paintBorder(this, g, 0, 0, tileWidth, tileHeight);
+
+        String text;
+        Color color = Color.BLACK;
+        switch (glyph) {
+            case GLYPH_NONE:
+                text = null;
+                break;
+            case GLYPH_FLAG:
+                text = "▶";
+                color = Color.RED;
+                break;
+            case GLYPH_QUESTION:
+                text = "?";
+                break;
+            case GLYPH_MINE:
+                text = "X";
+                break;
+            case GLYPH_EXPLODED:
+                text = "*";
+                color = Color.RED;
+                break;
+            default:
+                text = String.valueOf(glyph);
+                color = NUMBER_COLORS[glyph - 1];
+                break;
+        }
+
+        if (text != null) {
+            g.setRenderingHint(KEY_TEXT_ANTIALIASING, VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(getFont());
+            g.setColor(color);
+            FontMetrics metrics = g.getFontMetrics();
+            g.drawString(text, (tileWidth - metrics.stringWidth(text)) / 2,
+                (tileHeight - metrics.getHeight()) / 2 + metrics.getAscent());
+        }
+        g.dispose();
+        return image;
+    }
+
+}
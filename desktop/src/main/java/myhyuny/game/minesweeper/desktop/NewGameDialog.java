@@ -1,17 +1,17 @@
-package myhyuny.game.minesweeper;
+package myhyuny.game.minesweeper.desktop;
 
 import static java.awt.event.KeyEvent.VK_0;
 import static java.awt.event.KeyEvent.VK_9;
 import static java.awt.event.KeyEvent.VK_BACK_SPACE;
 import static java.awt.event.KeyEvent.VK_ENTER;
 import static java.lang.Integer.parseInt;
-import static myhyuny.game.minesweeper.Application.isMac;
 import static myhyuny.game.minesweeper.Minesweeper.MAX_HEIGHT;
 import static myhyuny.game.minesweeper.Minesweeper.MAX_MINES;
 import static myhyuny.game.minesweeper.Minesweeper.MAX_WIDTH;
 import static myhyuny.game.minesweeper.Minesweeper.MIN_HEIGHT;
 import static myhyuny.game.minesweeper.Minesweeper.MIN_MINES;
 import static myhyuny.game.minesweeper.Minesweeper.MIN_WIDTH;
+import static myhyuny.game.minesweeper.desktop.Application.isMac;
 
 import java.awt.BorderLayout;
 import java.awt.Button;
@@ -29,13 +29,20 @@ import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 
+import myhyuny.game.minesweeper.Minesweeper;
+import myhyuny.game.minesweeper.Score;
+
 /**
  * @author Hyunmin Kang
  */
 final class NewGameDialog extends Frame {
 
     private static final int WIDTH = 512;
-    private static final int HEIGHT = 120;
+    private static final int HEIGHT = 140;
+
+    private static final String BEGINNER = "Beginner";
+    private static final String INTERMEDIATE = "Intermediate";
+    private static final String EXPERT = "Expert";
 
     private final Panel panel = new Panel(new BorderLayout());
     private final TextField widthTextField = new TextField();
@@ -63,9 +70,9 @@ final class NewGameDialog extends Frame {
 
         Button startButton = new Button("Start");
         Button cancelButton = new Button("Cancel");
-        Button beginnerButton = new Button("Beginner");
-        Button intermediateButton = new Button("Intermediate");
-        Button advancedButton = new Button("Expert");
+        Button beginnerButton = new Button(BEGINNER);
+        Button intermediateButton = new Button(INTERMEDIATE);
+        Button advancedButton = new Button(EXPERT);
         startButton.setEnabled(false);
 
         Panel southPanel = new Panel(new FlowLayout(FlowLayout.RIGHT));
@@ -81,6 +88,8 @@ final class NewGameDialog extends Frame {
             southPanel.add(cancelButton);
         }
 
+        panel.add(new Label(" Best: " + best(BEGINNER) + "   " + best(INTERMEDIATE) + "   " + best(EXPERT)),
+            BorderLayout.NORTH);
         panel.add(westPanel, BorderLayout.WEST);
         panel.add(centerPanel, BorderLayout.CENTER);
         panel.add(southPanel, BorderLayout.SOUTH);
@@ -174,6 +183,28 @@ final class NewGameDialog extends Frame {
         setVisible(true);
     }
 
+    /**
+     * @return name of the preset of the game's size, or its size when it is none
+     */
+    static String preset(Minesweeper game) {
+        int width = game.getWidth(), height = game.getHeight(), mines = game.getMines();
+        if (width == MIN_WIDTH && height == MIN_HEIGHT && mines == MIN_MINES) {
+            return BEGINNER;
+        }
+        if (width == 16 && height == 16 && mines == 30) {
+            return INTERMEDIATE;
+        }
+        if (width == 30 && height == 16 && mines == 99) {
+            return EXPERT;
+        }
+        return width + "x" + height + "/" + mines;
+    }
+
+    private static String best(String preset) {
+        Score score = Application.scores != null ? Application.scores.best(preset) : null;
+        return preset + ' ' + (score != null ? String.format("%.3fs", score.getMillis() / 1000d) : "-");
+    }
+
     private void start() {
         int width = parseInt(widthTextField.getText());
         int height = parseInt(heightTextText.getText());
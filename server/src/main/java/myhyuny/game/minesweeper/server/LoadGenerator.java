@@ -0,0 +1,209 @@
+package myhyuny.game.minesweeper.server;
+
+import static java.lang.System.nanoTime;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import myhyuny.game.minesweeper.Histogram;
+
+/**
+ * Plays random games against a {@link Server} from many connections at once and prints the round trip percentiles.
+ * Each client keeps its own view of the board from the events it gets back, selects closed squares at random, now and
+ * then flags or chords, and starts over when the game ends.
+ * <p>
+ * Arguments: host, port, connections, seconds, width, height and mines.
+ *
+ * @author Hyunmin Kang
+ */
+public final class LoadGenerator {
+
+    private static final byte CLOSED = -1;
+
+    private final String host;
+    private final int port;
+    private final int width;
+    private final int height;
+    private final int mines;
+    private final long deadline;
+
+    private final Histogram latencies = new Histogram();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder cleared = new LongAdder();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private LoadGenerator(String host, int port, int width, int height, int mines, long deadline) {
+        this.host = host;
+        this.port = port;
+        this.width = width;
+        this.height = height;
+        this.mines = mines;
+        this.deadline = deadline;
+    }
+
+    private void client() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            Protocol.Writer writer = new Protocol.Writer();
+            ByteBuffer buffer = ByteBuffer.allocate(256);
+
+            byte[] view = null;
+            int columns = width;
+            boolean over = true;
+            while (nanoTime() < deadline) {
+                if (over) {
+                    writer.begin(Protocol.NEW).putInt(width).putInt(height).putInt(mines);
+                } else if (random.nextInt(1000) == 0) {
+                    writer.begin(Protocol.SNAPSHOT);
+                } else {
+                    int roll = random.nextInt(16);
+                    byte type = roll == 0 ? Protocol.CHORD : roll < 3 ? Protocol.FLAG : Protocol.SELECT;
+                    int index = type == Protocol.CHORD ? random.nextInt(view.length)
+                        : closed(view, random, type == Protocol.SELECT);
+                    if (index < 0) {
+                        type = Protocol.FLAG;
+                        index = closed(view, random, false);
+                    }
+                    writer.begin(type).putShort(index / columns).putShort(index % columns);
+                }
+
+                long begin = nanoTime();
+                writer.writeTo(out);
+                buffer = Protocol.read(in, buffer, Protocol.MAX_FRAME);
+                latencies.record(nanoTime() - begin);
+                if (buffer == null) {
+                    throw new IOException("Server closed the connection");
+                }
+
+                switch (buffer.get()) {
+                    case Protocol.GAME:
+                        columns = buffer.getInt();
+                        int size = columns * buffer.getInt();
+                        if (view == null || view.length != size) {
+                            view = new byte[size];
+                        }
+                        Arrays.fill(view, CLOSED);
+                        over = false;
+                        games.increment();
+                        break;
+                    case Protocol.EVENTS:
+                        over = apply(buffer, view);
+                        break;
+                    case Protocol.SNAPSHOT_DATA:
+                        break;
+                    default:
+                        errors.increment();
+                        byte[] message = new byte[buffer.remaining()];
+                        buffer.get(message);
+                        System.err.println(new String(message, StandardCharsets.UTF_8));
+                        over = true;
+                }
+            }
+        } catch (IOException e) {
+            errors.increment();
+            System.err.println(e);
+        }
+    }
+
+    /**
+     * @return a closed square, not flagged when {@code select}, or -1 when there is none
+     */
+    private static int closed(byte[] view, ThreadLocalRandom random, boolean select) {
+        for (int i = 0; i < 8; i++) {
+            int index = random.nextInt(view.length);
+            if (view[index] == CLOSED || !select && view[index] < 0) {
+                return index;
+            }
+        }
+        int start = random.nextInt(view.length);
+        for (int i = 0; i < view.length; i++) {
+            int index = (start + i) % view.length;
+            if (view[index] == CLOSED || !select && view[index] < 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Marks opened squares with their value and flagged squares below -1.
+     *
+     * @return whether the game ended
+     */
+    private boolean apply(ByteBuffer frame, byte[] view) {
+        int count = frame.getInt();
+        boolean over = false;
+        for (int i = 0; i < count; i++) {
+            byte kind = frame.get();
+            int index = frame.getInt();
+            byte value = frame.get();
+            switch (kind) {
+                case Protocol.OPENED:
+                    view[index] = value;
+                    break;
+                case Protocol.FLAGGED:
+                    view[index] = (byte) (CLOSED - value);
+                    break;
+                case Protocol.OVER:
+                    over = true;
+                    if (value == 1) {
+                        cleared.increment();
+                    }
+                    break;
+            }
+        }
+        events.add(count);
+        return over;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : Server.DEFAULT_PORT;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int width = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+        int height = args.length > 5 ? Integer.parseInt(args[5]) : 16;
+        int mines = args.length > 6 ? Integer.parseInt(args[6]) : 99;
+
+        long begin = nanoTime();
+        LoadGenerator generator = new LoadGenerator(host, port, width, height, mines,
+            begin + TimeUnit.SECONDS.toNanos(seconds));
+
+        ExecutorService executor = Server.virtualThreadPerTask();
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(connections);
+        }
+        for (int i = 0; i < connections; i++) {
+            executor.execute(generator::client);
+        }
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+
+        double elapsed = (nanoTime() - begin) / 1e9d;
+        Histogram latencies = generator.latencies;
+        long requests = latencies.count();
+        System.out.printf("connections=%d requests=%d (%.0f/s) games=%d cleared=%d events=%d errors=%d%n",
+            connections, requests, requests / elapsed, generator.games.sum(), generator.cleared.sum(),
+            generator.events.sum(), generator.errors.sum());
+        System.out.printf("round trip p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus%n",
+            latencies.percentile(50) / 1e3d, latencies.percentile(90) / 1e3d, latencies.percentile(99) / 1e3d,
+            latencies.percentile(99.9) / 1e3d, latencies.percentile(100) / 1e3d);
+    }
+
+}
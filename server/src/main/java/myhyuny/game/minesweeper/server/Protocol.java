@@ -0,0 +1,139 @@
+package myhyuny.game.minesweeper.server;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Frames exchanged with a client: a big-endian int length of what follows, a type byte and its payload.
+ * <p>
+ * A client sends {@link #NEW} (int width, height and mines), {@link #SELECT}, {@link #FLAG} and {@link #CHORD} (short
+ * rows and cols) and {@link #SNAPSHOT}. The first square selected starts the game. The server answers every frame
+ * with exactly one frame: {@link #GAME} (int width, height and mines as adjusted), {@link #EVENTS} (int count, then
+ * per event a kind byte, an int square index and a value byte), {@link #SNAPSHOT_DATA} or {@link #ERROR} (a UTF-8
+ * message).
+ *
+ * @author Hyunmin Kang
+ */
+final class Protocol {
+
+    static final byte NEW = 0x01;
+    static final byte SELECT = 0x02;
+    static final byte FLAG = 0x03;
+    static final byte CHORD = 0x04;
+    static final byte SNAPSHOT = 0x05;
+
+    static final byte GAME = (byte) 0x81;
+    static final byte EVENTS = (byte) 0x82;
+    static final byte SNAPSHOT_DATA = (byte) 0x83;
+    static final byte ERROR = (byte) 0x8f;
+
+    /**
+     * Square opened, with its nearby count, plus 0x10 when it is a mine.
+     */
+    static final byte OPENED = 1;
+    /**
+     * Flag changed, with the new flag.
+     */
+    static final byte FLAGGED = 2;
+    static final byte EXPLODED = 3;
+    /**
+     * Game over, with 1 when cleared. The index is unused.
+     */
+    static final byte OVER = 4;
+
+    /**
+     * Longest frame a client sends: far more than the longest request, so that a bad length never allocates much.
+     */
+    static final int MAX_REQUEST = 1 << 8;
+    /**
+     * Longest frame the server answers with, a snapshot of the largest board.
+     */
+    static final int MAX_FRAME = 1 << 28;
+
+    private Protocol() {
+    }
+
+    /**
+     * Frame being written, reused from one frame to the next.
+     */
+    static final class Writer {
+        private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        Writer begin(byte type) {
+            buffer.clear();
+            buffer.putInt(0).put(type);
+            return this;
+        }
+
+        Writer putInt(int value) {
+            ensure(4).putInt(value);
+            return this;
+        }
+
+        Writer putShort(int value) {
+            ensure(2).putShort((short) value);
+            return this;
+        }
+
+        Writer put(byte value) {
+            ensure(1).put(value);
+            return this;
+        }
+
+        Writer put(byte[] bytes) {
+            ensure(bytes.length).put(bytes);
+            return this;
+        }
+
+        Writer putInt(int position, int value) {
+            buffer.putInt(position, value);
+            return this;
+        }
+
+        int position() {
+            return buffer.position();
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            buffer.putInt(0, buffer.position() - 4);
+            out.write(buffer.array(), 0, buffer.position());
+            out.flush();
+        }
+
+        private ByteBuffer ensure(int length) {
+            if (buffer.remaining() < length) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() << 1, buffer.position() + length));
+                grown.put(buffer.flip());
+                buffer = grown;
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * Reads a whole frame into {@code buffer}, growing it when needed.
+     *
+     * @param max longest frame taken, {@link #MAX_REQUEST} on the server and {@link #MAX_FRAME} on a client
+     * @return the frame, positioned at its type byte, or {@code null} at the end of the stream
+     */
+    static ByteBuffer read(DataInputStream in, ByteBuffer buffer, int max) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 1 || max < length) {
+            throw new IOException("Bad frame length: " + length);
+        }
+        if (buffer.capacity() < length) {
+            buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() << 1));
+        }
+        in.readFully(buffer.array(), 0, length);
+        return buffer.clear().limit(length);
+    }
+
+}
@@ -0,0 +1,121 @@
+package myhyuny.game.minesweeper.server;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import myhyuny.game.minesweeper.BoardPool;
+import myhyuny.game.minesweeper.Histogram;
+
+/**
+ * Hosts independent games over TCP, one {@link Session} per connection, each on its own thread: a virtual thread where
+ * the runtime has them, a pooled platform thread otherwise. Every few seconds it prints the sessions open and the
+ * percentiles of the time spent serving a request.
+ *
+ * @author Hyunmin Kang
+ */
+public final class Server {
+
+    public static final int DEFAULT_PORT = 7777;
+
+    private static final long REPORT_SECONDS = 10;
+
+    private final BoardPool pool = new BoardPool(64, 8);
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final LongAdder connections = new LongAdder();
+    private final Histogram latencies = new Histogram();
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+
+    public Server() {
+        ExecutorService executor = virtualThreadPerTask();
+        this.virtual = executor != null;
+        this.executor = virtual ? executor : Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "session");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Accepts connections until the socket closes.
+     */
+    public void serve(ServerSocket socket) throws IOException {
+        while (!socket.isClosed()) {
+            Socket client = socket.accept();
+            sessions.incrementAndGet();
+            connections.increment();
+            executor.execute(new Session(this, client));
+        }
+    }
+
+    BoardPool getPool() {
+        return pool;
+    }
+
+    void served(long nanos) {
+        latencies.record(nanos);
+    }
+
+    void closed(Session session) {
+        sessions.decrementAndGet();
+    }
+
+    public int getSessions() {
+        return sessions.get();
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    private String report() {
+        String report = String.format("sessions=%d connections=%d %s", sessions.get(), connections.sum(),
+            latencies.summary());
+        latencies.reset();
+        return report;
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()}, looked up at run time so the server still builds and runs
+     * on releases without it.
+     */
+    static ExecutorService virtualThreadPerTask() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Server server = new Server();
+
+        try (ServerSocket socket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress())) {
+            System.out.printf("Listening on %s:%d with %s threads%n", socket.getInetAddress().getHostAddress(),
+                socket.getLocalPort(), server.isVirtual() ? "virtual" : "platform");
+
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "report");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(() -> System.out.println(server.report()),
+                REPORT_SECONDS, REPORT_SECONDS, TimeUnit.SECONDS);
+
+            server.serve(socket);
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package myhyuny.game.minesweeper.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import myhyuny.game.minesweeper.Minesweeper;
+import myhyuny.game.minesweeper.Snapshot;
+
+/**
+ * One client connection and its game. Everything the game's listeners report during a request is batched into the
+ * single {@link Protocol#EVENTS} frame answering it.
+ *
+ * @author Hyunmin Kang
+ */
+final class Session implements Runnable {
+
+    private final Server server;
+    private final Socket socket;
+    private final Protocol.Writer writer = new Protocol.Writer();
+
+    private Minesweeper game = null;
+    private int events = 0;
+
+    Session(Server server, Socket socket) {
+        this.server = server;
+        this.socket = socket;
+    }
+
+    @Override
+    public void run() {
+        try (Socket socket = this.socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+
+            for (ByteBuffer frame; (frame = Protocol.read(in, buffer, Protocol.MAX_REQUEST)) != null; ) {
+                buffer = frame;
+                long begin = System.nanoTime();
+                try {
+                    handle(frame);
+                } catch (RuntimeException e) {
+                    error(String.valueOf(e));
+                }
+                writer.writeTo(out);
+                server.served(System.nanoTime() - begin);
+            }
+        } catch (IOException e) {
+            // Connection dropped: nothing left to answer.
+        } finally {
+            server.closed(this);
+        }
+    }
+
+    private void handle(ByteBuffer frame) {
+        byte type = frame.get();
+        if (type == Protocol.NEW) {
+            newGame(frame.getInt(), frame.getInt(), frame.getInt());
+            writer.begin(Protocol.GAME).putInt(game.getWidth()).putInt(game.getHeight()).putInt(game.getMines());
+            return;
+        }
+        if (game == null) {
+            error("No game");
+            return;
+        }
+        if (type == Protocol.SNAPSHOT) {
+            writer.begin(Protocol.SNAPSHOT_DATA).put(Snapshot.save(game));
+            return;
+        }
+        if (type != Protocol.SELECT && type != Protocol.FLAG && type != Protocol.CHORD) {
+            error("Unknown frame type: " + type);
+            return;
+        }
+        if (frame.remaining() < 4) {
+            error("Frame too short for a square");
+            return;
+        }
+
+        int rows = frame.getShort() & 0xffff, cols = frame.getShort() & 0xffff;
+        if (game.getHeight() <= rows || game.getWidth() <= cols) {
+            error("Out of the board: " + rows + ", " + cols);
+            return;
+        }
+        writer.begin(Protocol.EVENTS).putInt(0);
+        events = 0;
+        if (!game.isStart() && type != Protocol.SELECT) {
+            // Nothing to flag or chord before the first square lays out the board.
+            return;
+        }
+        switch (type) {
+            case Protocol.SELECT:
+                if (game.isStart()) {
+                    game.select(rows, cols);
+                } else {
+                    game.start(rows, cols);
+                }
+                break;
+            case Protocol.FLAG:
+                game.changeFlag(rows, cols);
+                break;
+            case Protocol.CHORD:
+                game.exploreMine(rows, cols, (y, x) -> {});
+                break;
+        }
+        writer.putInt(5, events);
+    }
+
+    private void newGame(int width, int height, int mines) {
+        game = new Minesweeper(width, height, mines)
+            .setBoardPool(server.getPool())
+            .setMetered(true)
+            .setOpenedListener((rows, cols, cell) ->
+                event(Protocol.OPENED, rows, cols, cell.getNearby() | (cell.isMine() ? 0x10 : 0)))
+            .setFlagListener((rows, cols, flag) -> event(Protocol.FLAGGED, rows, cols, (flag + 1) % 3))
+            .setExplodedListener((rows, cols) -> event(Protocol.EXPLODED, rows, cols, 0))
+            .setOverListener(clear -> event(Protocol.OVER, 0, 0, clear ? 1 : 0));
+    }
+
+    private void event(byte kind, int rows, int cols, int value) {
+        writer.put(kind).putInt(rows * game.getWidth() + cols).put((byte) value);
+        events++;
+    }
+
+    private void error(String message) {
+        writer.begin(Protocol.ERROR).put(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+}